@@ -7,19 +7,44 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.veterinarian WHERE a.pet.id = :petId ORDER BY a.dateTime")
     List<Appointment> findByPetId(Long petId);
 
     List<Appointment> findByVeterinarianId(Long veterinarianId);
 
     List<Appointment> findByStatus(AppointmentStatus status);
 
-    @Query("SELECT a FROM Appointment a WHERE a.veterinarian.id = :vetId AND a.dateTime BETWEEN :start AND :end")
-    List<Appointment> findByVeterinarianIdAndDateTimeBetween(Long vetId, LocalDateTime start, LocalDateTime end);
+    /**
+     * Appointments of one veterinarian from {@code start} (inclusive) to {@code endExclusive}, in time
+     * order, with the pet's name and status read in the same statement. The range is half-open so
+     * consecutive windows never return the same appointment twice, and the predicate is a range scan on
+     * the (veterinarian_id, date_time) index that already delivers rows in the requested order.
+     */
+    @Query("SELECT a.id AS id, a.dateTime AS dateTime, a.reason AS reason, a.status AS status,"
+        + " p.id AS petId, p.name AS petName, p.status AS petStatus"
+        + " FROM Appointment a LEFT JOIN a.pet p"
+        + " WHERE a.veterinarian.id = :vetId AND a.dateTime >= :start AND a.dateTime < :endExclusive"
+        + " ORDER BY a.dateTime, a.id")
+    List<VeterinarianScheduleView> findScheduleByVeterinarianId(Long vetId, LocalDateTime start,
+                                                                LocalDateTime endExclusive);
 
     @Query("SELECT a FROM Appointment a JOIN FETCH a.pet JOIN FETCH a.veterinarian WHERE a.id = :id")
     Appointment findByIdWithDetails(Long id);
+
+    /**
+     * Most recent appointment of each given pet up to {@code asOf}, with its veterinarian, in one query.
+     * Upcoming appointments are left out, so a pet with only future bookings gets no row. Pets with two
+     * appointments at the same latest time get a row for each.
+     */
+    @Query("SELECT a.pet.id AS petId, a.id AS id, a.dateTime AS dateTime, a.reason AS reason, a.status AS status,"
+        + " v.id AS veterinarianId, v.firstName AS veterinarianFirstName, v.lastName AS veterinarianLastName"
+        + " FROM Appointment a LEFT JOIN a.veterinarian v"
+        + " WHERE a.pet.id IN :petIds AND a.dateTime = (SELECT MAX(b.dateTime) FROM Appointment b"
+        + "  WHERE b.pet = a.pet AND b.dateTime <= :asOf)")
+    List<PetAppointmentView> findLatestByPetIdIn(Collection<Long> petIds, LocalDateTime asOf);
 }
@@ -14,6 +14,8 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
 
     List<MedicalRecord> findByVeterinarianId(Long veterinarianId);
 
+    @Query("SELECT mr FROM MedicalRecord mr LEFT JOIN FETCH mr.veterinarian WHERE mr.pet.id = :petId"
+        + " ORDER BY mr.visitDate DESC")
     List<MedicalRecord> findByPetIdOrderByVisitDateDesc(Long petId);
 
     @Query("SELECT mr FROM MedicalRecord mr WHERE mr.pet.id = :petId AND mr.visitDate BETWEEN :startDate AND :endDate")
@@ -0,0 +1,21 @@
+package com.khchan.petstore.repository;
+
+import com.khchan.petstore.domain.InsuranceStatus;
+import com.khchan.petstore.domain.Status;
+
+/**
+ * A pet of an owner together with its breed and insurance status, read in the same row.
+ */
+public interface OwnerPetView {
+    Long getId();
+
+    String getName();
+
+    Status getStatus();
+
+    Long getBreedId();
+
+    String getBreedName();
+
+    InsuranceStatus getInsuranceStatus();
+}
@@ -0,0 +1,23 @@
+package com.khchan.petstore.repository;
+
+import com.khchan.petstore.domain.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public interface PetAppointmentView {
+    Long getPetId();
+
+    Long getId();
+
+    LocalDateTime getDateTime();
+
+    String getReason();
+
+    AppointmentStatus getStatus();
+
+    Long getVeterinarianId();
+
+    String getVeterinarianFirstName();
+
+    String getVeterinarianLastName();
+}
@@ -0,0 +1,10 @@
+package com.khchan.petstore.repository;
+
+/**
+ * {@link PetSummaryView} plus the pet's category, read through a single outer join.
+ */
+public interface PetCategorySummaryView extends PetSummaryView {
+    Long getCategoryId();
+
+    String getCategoryName();
+}
@@ -0,0 +1,10 @@
+package com.khchan.petstore.repository;
+
+/**
+ * One photo url of one pet, keyed by the owning pet's id.
+ */
+public interface PetPhotoView {
+    Long getPetId();
+
+    String getUrl();
+}
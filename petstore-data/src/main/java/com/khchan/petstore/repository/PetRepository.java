@@ -1,7 +1,125 @@
 package com.khchan.petstore.repository;
 
 import com.khchan.petstore.domain.PetEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface PetRepository extends JpaRepository<PetEntity, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PetRepository extends JpaRepository<PetEntity, Long>, JpaSpecificationExecutor<PetEntity> {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Every pet in id order with its category fetched in the same query. Tags and media are left lazy;
+     * load them for all pets at once with {@link #findTagsByPetIdIn} and {@link #findPhotoUrlsByPetIdIn}.
+     */
+    @Query("SELECT p FROM PetEntity p LEFT JOIN FETCH p.category ORDER BY p.id")
+    List<PetEntity> findAllWithCategory();
+
+    /**
+     * Keyset slice ordered by id that only reads id and version, which is enough to validate a cached
+     * page without hydrating any entities. Seeks directly past {@code afterId} on the primary key index,
+     * so the cost of a page does not depend on how deep into the catalog it is.
+     */
+    @Query("SELECT p.id AS id, p.version AS version FROM PetEntity p WHERE p.id > :afterId ORDER BY p.id")
+    List<PetVersionView> findVersionsByIdGreaterThan(Long afterId, Limit limit);
+
+    /**
+     * Keyset slice of scalar columns only, for sparse field sets that need no associations.
+     */
+    @Query("SELECT p.id AS id, p.version AS version, p.name AS name, p.status AS status"
+        + " FROM PetEntity p WHERE p.id > :afterId ORDER BY p.id")
+    List<PetSummaryView> findSummariesByIdGreaterThan(Long afterId, Limit limit);
+
+    /**
+     * Keyset slice of scalar columns plus category, for sparse field sets that include the category.
+     */
+    @Query("SELECT p.id AS id, p.version AS version, p.name AS name, p.status AS status,"
+        + " c.id AS categoryId, c.name AS categoryName"
+        + " FROM PetEntity p LEFT JOIN p.category c WHERE p.id > :afterId ORDER BY p.id")
+    List<PetCategorySummaryView> findCategorySummariesByIdGreaterThan(Long afterId, Limit limit);
+
+    @Query("SELECT p.id AS id, p.version AS version, p.name AS name, p.status AS status"
+        + " FROM PetEntity p WHERE p.id = :id")
+    Optional<PetSummaryView> findSummaryById(Long id);
+
+    @Query("SELECT p.id AS id, p.version AS version, p.name AS name, p.status AS status,"
+        + " c.id AS categoryId, c.name AS categoryName"
+        + " FROM PetEntity p LEFT JOIN p.category c WHERE p.id = :id")
+    Optional<PetCategorySummaryView> findCategorySummaryById(Long id);
+
+    /**
+     * Scalar columns plus category of the given pets in one query. Used for multi-gets together with
+     * {@link #findTagsByPetIdIn} and {@link #findPhotoUrlsByPetIdIn}.
+     */
+    @Query("SELECT p.id AS id, p.version AS version, p.name AS name, p.status AS status,"
+        + " c.id AS categoryId, c.name AS categoryName"
+        + " FROM PetEntity p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<PetCategorySummaryView> findCategorySummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Tags of several pets in one query, keyed by pet id, without loading the pets themselves. Each
+     * pet's tags come in tag id order.
+     */
+    @Query("SELECT p.id AS petId, t.id AS id, t.name AS name FROM PetEntity p JOIN p.tags t WHERE p.id IN :petIds"
+        + " ORDER BY t.id")
+    List<PetTagView> findTagsByPetIdIn(Collection<Long> petIds);
+
+    /**
+     * Photo urls of several pets in one query, keyed by pet id, without loading the pets themselves.
+     * Each pet's urls come in media id order.
+     */
+    @Query("SELECT p.id AS petId, m.url AS url FROM PetEntity p JOIN p.media m WHERE p.id IN :petIds"
+        + " ORDER BY m.id")
+    List<PetPhotoView> findPhotoUrlsByPetIdIn(Collection<Long> petIds);
+
+    /**
+     * Pets of one owner with breed and insurance status joined in, so an owner view needs one query
+     * for all pets instead of one per lazy association.
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.status AS status, b.id AS breedId, b.name AS breedName,"
+        + " i.status AS insuranceStatus"
+        + " FROM PetEntity p LEFT JOIN p.breed b LEFT JOIN p.insurance i WHERE p.owner.id = :ownerId ORDER BY p.id")
+    List<OwnerPetView> findOwnerPetsByOwnerId(Long ownerId);
+
+    @Query("SELECT p.version FROM PetEntity p WHERE p.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Pets with the given ids and their tags in one query, so a batch update can change them in place
+     * without a lookup or a lazy load per pet. Media are left lazy.
+     */
+    @Query("SELECT p FROM PetEntity p LEFT JOIN FETCH p.tags WHERE p.id IN :ids")
+    List<PetEntity> findWithTagsByIdIn(Collection<Long> ids);
+
+    /**
+     * Scrolls the whole catalog in id order. Rows are pulled from the driver {@value #STREAM_FETCH_SIZE}
+     * at a time and loaded read-only, so callers must consume the stream inside a transaction, close it,
+     * and clear the persistence context periodically to keep memory flat. The category is fetched with
+     * each row.
+     */
+    @Query("SELECT p FROM PetEntity p LEFT JOIN FETCH p.category ORDER BY p.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PetEntity> streamAllOrderedById();
+
+    /**
+     * Scrolls every pet's name and tag names in pet id order, one row per tag, for rebuilding text
+     * indexes. Reads only those columns, and rows are pulled {@value #STREAM_FETCH_SIZE} at a time, so
+     * memory stays flat; callers must consume the stream inside a transaction and close it.
+     */
+    @Query("SELECT p.id AS petId, p.name AS name, t.name AS tagName FROM PetEntity p LEFT JOIN p.tags t ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    Stream<PetTextView> streamTextOrderedByPetId();
 }
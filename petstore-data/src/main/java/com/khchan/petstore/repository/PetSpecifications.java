@@ -0,0 +1,49 @@
+package com.khchan.petstore.repository;
+
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.TagEntity;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Search filters for {@link PetRepository}, combined with {@link Specification#allOf}. Association
+ * filters compare the foreign key column, so none of them joins the associated table.
+ */
+public final class PetSpecifications {
+
+    private PetSpecifications() {
+    }
+
+    public static Specification<PetEntity> hasStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<PetEntity> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<PetEntity> ofBreed(Long breedId) {
+        return (root, query, cb) -> cb.equal(root.get("breed").get("id"), breedId);
+    }
+
+    public static Specification<PetEntity> ownedBy(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("owner").get("id"), ownerId);
+    }
+
+    /**
+     * Pets carrying a tag with this name. Written as EXISTS rather than a join so a pet is never
+     * returned twice and page sizes stay exact.
+     */
+    public static Specification<PetEntity> taggedWith(String tagName) {
+        return (root, query, cb) -> {
+            Subquery<Long> tagged = query.subquery(Long.class);
+            Root<PetEntity> pet = tagged.correlate(root);
+            Join<PetEntity, TagEntity> tags = pet.join("tags");
+            tagged.select(tags.<Long>get("id")).where(cb.equal(tags.get("name"), tagName));
+            return cb.exists(tagged);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.khchan.petstore.repository;
+
+import com.khchan.petstore.domain.Status;
+
+/**
+ * Scalar columns of a pet, read without touching any association.
+ */
+public interface PetSummaryView {
+    Long getId();
+
+    Long getVersion();
+
+    String getName();
+
+    Status getStatus();
+}
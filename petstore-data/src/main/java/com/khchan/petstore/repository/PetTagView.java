@@ -0,0 +1,12 @@
+package com.khchan.petstore.repository;
+
+/**
+ * One tag of one pet, keyed by the owning pet's id so tags for a whole page can be read at once.
+ */
+public interface PetTagView {
+    Long getPetId();
+
+    Long getId();
+
+    String getName();
+}
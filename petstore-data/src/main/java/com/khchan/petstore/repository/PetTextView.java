@@ -0,0 +1,12 @@
+package com.khchan.petstore.repository;
+
+/**
+ * A pet's name with one of its tag names; a pet without tags has a single row with a null tag name.
+ */
+public interface PetTextView {
+    Long getPetId();
+
+    String getName();
+
+    String getTagName();
+}
@@ -0,0 +1,9 @@
+package com.khchan.petstore.repository;
+
+import java.time.LocalDate;
+
+public interface PetVaccinationDueView {
+    Long getPetId();
+
+    LocalDate getNextDueDate();
+}
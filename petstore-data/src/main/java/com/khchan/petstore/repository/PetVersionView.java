@@ -0,0 +1,10 @@
+package com.khchan.petstore.repository;
+
+/**
+ * Id/version projection of a pet, used to compute validators without loading the entity.
+ */
+public interface PetVersionView {
+    Long getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,18 @@
+package com.khchan.petstore.repository;
+
+import com.khchan.petstore.domain.TagEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<TagEntity, Long> {
+
+    /**
+     * Existing tags with any of the given names in one query, so a write can reuse them instead of
+     * creating duplicates.
+     */
+    List<TagEntity> findByNameIn(Collection<String> names);
+}
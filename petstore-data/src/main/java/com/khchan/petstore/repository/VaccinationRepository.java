@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,6 +18,18 @@ public interface VaccinationRepository extends JpaRepository<Vaccination, Long>
     @Query("SELECT v FROM Vaccination v WHERE v.nextDueDate < :date")
     List<Vaccination> findOverdueVaccinations(LocalDate date);
 
-    @Query("SELECT v FROM Vaccination v WHERE v.pet.id = :petId ORDER BY v.dateAdministered DESC")
+    @Query("SELECT v FROM Vaccination v LEFT JOIN FETCH v.administeredBy WHERE v.pet.id = :petId"
+        + " ORDER BY v.dateAdministered DESC")
     List<Vaccination> findByPetIdOrderByDateDesc(Long petId);
+
+    /**
+     * Earliest next due date per pet, in one query for all given pets. Only the most recent dose of
+     * each vaccine counts, so a booster that has already been given does not leave its predecessor's
+     * due date behind as overdue.
+     */
+    @Query("SELECT v.pet.id AS petId, MIN(v.nextDueDate) AS nextDueDate FROM Vaccination v"
+        + " WHERE v.pet.id IN :petIds AND v.dateAdministered = (SELECT MAX(w.dateAdministered) FROM Vaccination w"
+        + " WHERE w.pet = v.pet AND w.vaccineName = v.vaccineName)"
+        + " GROUP BY v.pet.id")
+    List<PetVaccinationDueView> findNextDueDatesByPetIdIn(Collection<Long> petIds);
 }
@@ -0,0 +1,26 @@
+package com.khchan.petstore.repository;
+
+import com.khchan.petstore.domain.AppointmentStatus;
+import com.khchan.petstore.domain.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * An appointment on a veterinarian's schedule with its pet's name and status, read in the same row.
+ * The pet columns are null when the pet has been deleted.
+ */
+public interface VeterinarianScheduleView {
+    Long getId();
+
+    LocalDateTime getDateTime();
+
+    String getReason();
+
+    AppointmentStatus getStatus();
+
+    Long getPetId();
+
+    String getPetName();
+
+    Status getPetStatus();
+}
@@ -15,9 +15,11 @@ import java.time.LocalDateTime;
  * Represents an appointment between a pet and a veterinarian.
  * This acts as a join entity for the many-to-many relationship between Pet and Veterinarian,
  * with additional attributes (dateTime, reason, notes).
+ * Schedules are read by veterinarian and time range, so (veterinarian_id, date_time) is indexed.
  */
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments",
+    indexes = @Index(name = "idx_appointments_veterinarian_date_time", columnList = "veterinarian_id, date_time"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import jakarta.persistence.*;
 import java.util.ArrayList;
@@ -22,16 +23,29 @@ import java.util.List;
  * - Pet -> Appointments: CASCADE.PERSIST, MERGE
  * - Pet -> Tags: CASCADE.MERGE (existing)
  * - Pet -> Breed: No cascade (Breed is a reference entity)
+ *
+ * Status, category and breed are the catalog's search filters, so each has its own index.
+ * {@code (name, id)} serves the keyset seek and ordering of searches sorted by name.
  */
 @Entity
-@Table(name = "pets")
+@Table(name = "pets", indexes = {
+    @Index(name = "idx_pets_status", columnList = "status"),
+    @Index(name = "idx_pets_category_id", columnList = "category_id"),
+    @Index(name = "idx_pets_breed_id", columnList = "breed_id"),
+    @Index(name = "idx_pets_name_id", columnList = "name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class PetEntity {
+    /**
+     * Sequence-generated with a pooled allocation so Hibernate can assign ids up front and batch
+     * the INSERTs; IDENTITY forces an immediate round trip per row.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pets_seq")
+    @SequenceGenerator(name = "pets_seq", sequenceName = "pets_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
@@ -40,6 +54,15 @@ public class PetEntity {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    /**
+     * Optimistic lock version, bumped on every update. Also serves as the validator for pet ETags.
+     * The column default lets rows inserted outside JPA (e.g. seed scripts) start at version 0.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     @ToString.Exclude
@@ -0,0 +1,18 @@
+package com.khchan.petstore.dto;
+
+import com.khchan.petstore.domain.AppointmentStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class AppointmentSummary {
+    private Long id;
+    private LocalDateTime dateTime;
+    private String reason;
+    private AppointmentStatus status;
+    private Long veterinarianId;
+    private String veterinarianName;
+}
@@ -0,0 +1,16 @@
+package com.khchan.petstore.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Counters of a request-coalescing layer. {@code coalesced} is the number of loads saved: callers
+ * that were answered by another caller's in-flight load instead of running their own.
+ */
+@Getter
+@Builder
+public class CoalescingStats {
+    private long loads;
+    private long coalesced;
+    private int inFlight;
+}
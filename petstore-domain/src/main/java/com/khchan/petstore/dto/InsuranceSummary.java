@@ -0,0 +1,21 @@
+package com.khchan.petstore.dto;
+
+import com.khchan.petstore.domain.InsuranceStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Builder
+public class InsuranceSummary {
+    private Long id;
+    private String policyNumber;
+    private String provider;
+    private BigDecimal coverageAmount;
+    private BigDecimal monthlyPremium;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private InsuranceStatus status;
+}
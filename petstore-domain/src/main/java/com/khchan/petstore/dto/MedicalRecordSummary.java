@@ -0,0 +1,19 @@
+package com.khchan.petstore.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@Builder
+public class MedicalRecordSummary {
+    private Long id;
+    private LocalDate visitDate;
+    private String diagnosis;
+    private String treatment;
+    private String notes;
+    private Double weight;
+    private Long veterinarianId;
+    private String veterinarianName;
+}
@@ -0,0 +1,27 @@
+package com.khchan.petstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.khchan.petstore.domain.InsuranceStatus;
+import com.khchan.petstore.domain.Status;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * One pet in an {@link OwnerSummary}. Breed, insurance status, next vaccination and latest
+ * appointment are absent when the pet has none.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OwnerPetSummary {
+    private Long id;
+    private String name;
+    private Status status;
+    private Long breedId;
+    private String breedName;
+    private InsuranceStatus insuranceStatus;
+    private LocalDate nextVaccinationDue;
+    private AppointmentSummary latestAppointment;
+}
@@ -0,0 +1,22 @@
+package com.khchan.petstore.dto;
+
+import com.khchan.petstore.domain.Address;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Front-desk view of an owner: contact details plus the state of each of their pets.
+ */
+@Getter
+@Builder
+public class OwnerSummary {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+    private Address address;
+    private List<OwnerPetSummary> pets;
+}
@@ -1,9 +1,12 @@
 package com.khchan.petstore.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.khchan.petstore.domain.Category;
 import com.khchan.petstore.domain.Status;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.List;
@@ -11,6 +14,9 @@ import java.util.List;
 @Getter
 @Setter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Pet {
     private Long id;
     private String name;
@@ -18,4 +24,5 @@ public class Pet {
     private Category category;
     private List<String> photoUrls;
     private List<Tag> tags;
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.khchan.petstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Outcome of looking up one requested id in a multi-get. {@code pet} is absent when {@code found}
+ * is false.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PetLookupResult {
+    private Long id;
+    private boolean found;
+    private Pet pet;
+}
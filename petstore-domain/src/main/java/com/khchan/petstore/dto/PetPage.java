@@ -0,0 +1,18 @@
+package com.khchan.petstore.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One keyset page of pets. {@code nextCursor} is opaque to clients and is null on the last page.
+ */
+@Getter
+@Setter
+@Builder
+public class PetPage {
+    private List<Pet> items;
+    private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.khchan.petstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A pet with its whole care history: medical records and vaccinations newest first, appointments in
+ * time order. {@code insurance} is absent when the pet is not insured.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PetProfile {
+    private Pet pet;
+    private List<MedicalRecordSummary> medicalRecords;
+    private List<VaccinationSummary> vaccinations;
+    private List<AppointmentSummary> appointments;
+    private InsuranceSummary insurance;
+}
@@ -0,0 +1,18 @@
+package com.khchan.petstore.dto;
+
+import com.khchan.petstore.domain.Status;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Filters of a pet search. Every filter is optional; the ones that are set must all match.
+ */
+@Getter
+@Builder
+public class PetSearchFilter {
+    private Status status;
+    private Long categoryId;
+    private Long breedId;
+    private Long ownerId;
+    private String tag;
+}
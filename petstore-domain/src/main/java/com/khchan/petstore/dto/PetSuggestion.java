@@ -0,0 +1,15 @@
+package com.khchan.petstore.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A search-box match: enough to label the pet and link to it. Higher scores are better matches.
+ */
+@Getter
+@Builder
+public class PetSuggestion {
+    private Long id;
+    private String name;
+    private float score;
+}
@@ -0,0 +1,25 @@
+package com.khchan.petstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.khchan.petstore.domain.AppointmentStatus;
+import com.khchan.petstore.domain.Status;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One appointment on a veterinarian's schedule. The pet fields are absent when the pet no longer exists.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScheduledAppointment {
+    private Long id;
+    private LocalDateTime dateTime;
+    private String reason;
+    private AppointmentStatus status;
+    private Long petId;
+    private String petName;
+    private Status petStatus;
+}
@@ -0,0 +1,18 @@
+package com.khchan.petstore.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@Builder
+public class VaccinationSummary {
+    private Long id;
+    private String vaccineName;
+    private LocalDate dateAdministered;
+    private LocalDate nextDueDate;
+    private String notes;
+    private Long administeredById;
+    private String administeredByName;
+}
@@ -3,7 +3,9 @@ package com.khchan.petstore.service;
 import com.khchan.petstore.domain.PetEntity;
 import com.khchan.petstore.domain.Status;
 import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.PetSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
@@ -27,21 +29,28 @@ public class OrderService {
     private final PlatformTransactionManager transactionManager;
     private final TransactionTemplate txTemplate;
     private final InventoryService inventoryService;
+    private final PetTransformer petTransformer;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public OrderService(PetRepository petRepository,
                         PlatformTransactionManager transactionManager,
-                        InventoryService inventoryService) {
+                        InventoryService inventoryService,
+                        PetTransformer petTransformer,
+                        ApplicationEventPublisher eventPublisher) {
         this.petRepository = petRepository;
         this.transactionManager = transactionManager;
         this.txTemplate = new TransactionTemplate(transactionManager);
         this.inventoryService = inventoryService;
+        this.petTransformer = petTransformer;
+        this.eventPublisher = eventPublisher;
     }
 
     // ==================== @Transactional Examples ====================
 
     /**
      * Simple transactional method - one commit at the end.
+     * Listeners see the AVAILABLE to SOLD transition only once the purchase commits.
      */
     @Transactional
     public PetEntity purchasePet(Long petId) {
@@ -53,7 +62,10 @@ public class OrderService {
             throw new IllegalStateException("Pet is not available for purchase");
         }
         pet.setStatus(Status.SOLD);
-        return petRepository.save(pet);
+        PetEntity saved = petRepository.save(pet);
+        eventPublisher.publishEvent(
+            PetChangeEvent.statusChanged(petTransformer.transformEntityToDTO(saved), Status.AVAILABLE));
+        return saved;
     }
 
     /**
@@ -220,9 +232,7 @@ public class OrderService {
     @Transactional(readOnly = true)
     public List<PetEntity> findAvailablePets() {
         // Read-only transactions can be optimized by the database
-        return petRepository.findAll().stream()
-                .filter(p -> p.getStatus() == Status.AVAILABLE)
-                .toList();
+        return petRepository.findAll(PetSpecifications.hasStatus(Status.AVAILABLE));
     }
 
     /**
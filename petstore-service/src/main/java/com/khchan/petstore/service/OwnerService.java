@@ -3,24 +3,47 @@ package com.khchan.petstore.service;
 import com.khchan.petstore.domain.Address;
 import com.khchan.petstore.domain.Owner;
 import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.dto.AppointmentSummary;
+import com.khchan.petstore.dto.OwnerPetSummary;
+import com.khchan.petstore.dto.OwnerSummary;
+import com.khchan.petstore.repository.AppointmentRepository;
+import com.khchan.petstore.repository.OwnerPetView;
 import com.khchan.petstore.repository.OwnerRepository;
+import com.khchan.petstore.repository.PetAppointmentView;
 import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.PetVaccinationDueView;
+import com.khchan.petstore.repository.VaccinationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class OwnerService {
 
     private final OwnerRepository ownerRepository;
     private final PetRepository petRepository;
+    private final VaccinationRepository vaccinationRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public OwnerService(OwnerRepository ownerRepository, PetRepository petRepository) {
+    public OwnerService(OwnerRepository ownerRepository, PetRepository petRepository,
+                        VaccinationRepository vaccinationRepository, AppointmentRepository appointmentRepository,
+                        ApplicationEventPublisher eventPublisher) {
         this.ownerRepository = ownerRepository;
         this.petRepository = petRepository;
+        this.vaccinationRepository = vaccinationRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -39,6 +62,55 @@ public class OwnerService {
             .orElseThrow(() -> new IllegalArgumentException("Owner not found: " + ownerId));
     }
 
+    /**
+     * Owner with each pet's breed, insurance status, next vaccination due date and most recent past
+     * appointment.
+     * Reads the owner, their pets, the vaccinations and the appointments in one query each, so the
+     * statement count stays at four however many pets the owner has.
+     *
+     * @return the summary, or empty if there is no such owner
+     */
+    @Transactional(readOnly = true)
+    public Optional<OwnerSummary> findOwnerSummary(Long ownerId) {
+        return ownerRepository.findById(ownerId).map(owner -> {
+            List<OwnerPetView> pets = petRepository.findOwnerPetsByOwnerId(ownerId);
+            List<Long> petIds = pets.stream().map(OwnerPetView::getId).toList();
+
+            Map<Long, LocalDate> nextDue = new HashMap<>();
+            Map<Long, AppointmentSummary> latestAppointments = new HashMap<>();
+            if (!petIds.isEmpty()) {
+                for (PetVaccinationDueView due : vaccinationRepository.findNextDueDatesByPetIdIn(petIds)) {
+                    nextDue.put(due.getPetId(), due.getNextDueDate());
+                }
+                appointmentRepository.findLatestByPetIdIn(petIds, LocalDateTime.now()).stream()
+                    // Ties on the latest time resolve to the most recently booked appointment
+                    .sorted(Comparator.comparing(PetAppointmentView::getId))
+                    .forEach(view -> latestAppointments.put(view.getPetId(), toAppointmentSummary(view)));
+            }
+
+            return OwnerSummary.builder()
+                .id(owner.getId())
+                .firstName(owner.getFirstName())
+                .lastName(owner.getLastName())
+                .email(owner.getEmail())
+                .phone(owner.getPhone())
+                .address(owner.getAddress())
+                .pets(pets.stream()
+                    .map(pet -> OwnerPetSummary.builder()
+                        .id(pet.getId())
+                        .name(pet.getName())
+                        .status(pet.getStatus())
+                        .breedId(pet.getBreedId())
+                        .breedName(pet.getBreedName())
+                        .insuranceStatus(pet.getInsuranceStatus())
+                        .nextVaccinationDue(nextDue.get(pet.getId()))
+                        .latestAppointment(latestAppointments.get(pet.getId()))
+                        .build())
+                    .toList())
+                .build();
+        });
+    }
+
     @Transactional(readOnly = true)
     public List<Owner> findOwnersByLastName(String lastName) {
         requireNonBlank(lastName, "Last name is required");
@@ -84,6 +156,8 @@ public class OwnerService {
         }
         owner.removePet(pet);
         ownerRepository.save(owner);
+        // Orphan removal deletes the pet itself, so indexes and caches have to drop it too
+        eventPublisher.publishEvent(PetChangeEvent.removed(petId));
     }
 
     @Transactional
@@ -96,6 +170,19 @@ public class OwnerService {
         ownerRepository.delete(owner);
     }
 
+    private static AppointmentSummary toAppointmentSummary(PetAppointmentView view) {
+        return AppointmentSummary.builder()
+            .id(view.getId())
+            .dateTime(view.getDateTime())
+            .reason(view.getReason())
+            .status(view.getStatus())
+            .veterinarianId(view.getVeterinarianId())
+            .veterinarianName(view.getVeterinarianId() == null
+                ? null
+                : view.getVeterinarianFirstName() + " " + view.getVeterinarianLastName())
+            .build();
+    }
+
     private void requireNonBlank(String value, String message) {
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException(message);
@@ -0,0 +1,106 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Read path for catalog listings that skips the persistence layer. A single SQL statement reads a page
+ * of pets with their category, and correlated subqueries have the database aggregate each pet's photo
+ * urls and tags into JSON arrays. Rows are handed over while the result set is being read: no entity is
+ * hydrated, nothing enters a persistence context and no {@code Pet} DTO is built.
+ *
+ * <p>Pages are the same as the pages {@link PetService#findPets(String, Integer, Set)} returns for
+ * {@link PetField#ALL}, which sparse field sets and other callers keep using.
+ */
+@Service
+public class PetCatalogReader {
+
+    private static final String PAGE_SQL = "SELECT p.id, p.version, p.name, p.status, c.id, c.name,"
+        + " (SELECT JSON_ARRAYAGG(m.url ORDER BY m.id) FROM pets_media pm JOIN media m ON m.id = pm.media_id"
+        + "  WHERE pm.pet_entity_id = p.id),"
+        + " (SELECT JSON_ARRAYAGG(JSON_OBJECT('id': t.id, 'name': t.name) ORDER BY t.id)"
+        + "  FROM pet_tags pt JOIN tags t ON t.id = pt.tag_id WHERE pt.pet_id = p.id)"
+        + " FROM pets p LEFT JOIN categories c ON c.id = p.category_id"
+        + " WHERE p.id > ? ORDER BY p.id FETCH FIRST ? ROWS ONLY";
+
+    /**
+     * One pet of a listing page. {@code photoUrlsJson} and {@code tagsJson} are JSON arrays as the
+     * database rendered them, ready to be written as raw values; they are null when the pet has none.
+     */
+    public record Row(long id, Long version, String name, Status status, Long categoryId, String categoryName,
+                      String photoUrlsJson, String tagsJson) {
+    }
+
+    /**
+     * What is known about a page once all of its rows have been read. {@code fingerprint} matches
+     * {@link PetService#fingerprint} of the same page.
+     */
+    public record Page(String nextCursor, String fingerprint) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PetCatalogReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads one keyset page and passes its pets to {@code rows} in id order.
+     *
+     * @param after opaque cursor from a previous page, or null for the first page
+     * @param limit requested page size, resolved as in {@link PetService#findPets(String, Integer, Set)}
+     * @throws IllegalArgumentException if the cursor or page size is invalid
+     */
+    public Page readPage(String after, Integer limit, Consumer<Row> rows) {
+        int pageSize = PetService.resolvePageSize(limit);
+        long afterId = PetService.resolveAfterId(after);
+
+        // One extra row tells whether another page exists; it is read but not passed on
+        PageReader page = new PageReader(pageSize, rows);
+        jdbcTemplate.query(PAGE_SQL, page, afterId, pageSize + 1);
+        return page.finish();
+    }
+
+    private static final class PageReader implements RowCallbackHandler {
+
+        private final int pageSize;
+        private final Consumer<Row> rows;
+        private final StringBuilder versions = new StringBuilder();
+        private int count;
+        private long lastId;
+
+        PageReader(int pageSize, Consumer<Row> rows) {
+            this.pageSize = pageSize;
+            this.rows = rows;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (count++ == pageSize) {
+                return;
+            }
+            long id = rs.getLong(1);
+            Long version = rs.getObject(2, Long.class);
+            String status = rs.getString(4);
+            Long categoryId = rs.getObject(5, Long.class);
+            rows.accept(new Row(id, version, rs.getString(3), status == null ? null : Status.valueOf(status),
+                categoryId, rs.getString(6), rs.getString(7), rs.getString(8)));
+            PetService.appendVersion(versions, id, version);
+            lastId = id;
+        }
+
+        Page finish() {
+            boolean hasMore = count > pageSize;
+            return new Page(hasMore ? PetCursor.encode(lastId) : null, PetService.digest(versions, hasMore));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published inside the writing transaction whenever a pet is created, updated or removed. Listeners
+ * that keep derived state (caches, indexes) should use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so rolled-back writes are never seen.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PetChangeEvent {
+
+    /**
+     * {@code STATUS_CHANGED} is published by writes that only move a pet through its lifecycle and
+     * know the status it left; full updates that happen to change the status are {@code UPDATED}.
+     */
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, REMOVED
+    }
+
+    private final Long petId;
+    private final Type type;
+    /**
+     * State of the pet after the change, or null when it was removed.
+     */
+    private final Pet pet;
+    /**
+     * Status before a {@code STATUS_CHANGED} event, otherwise null.
+     */
+    private final Status previousStatus;
+
+    public static PetChangeEvent created(Pet pet) {
+        return new PetChangeEvent(pet.getId(), Type.CREATED, pet, null);
+    }
+
+    public static PetChangeEvent updated(Pet pet) {
+        return new PetChangeEvent(pet.getId(), Type.UPDATED, pet, null);
+    }
+
+    public static PetChangeEvent statusChanged(Pet pet, Status previousStatus) {
+        return new PetChangeEvent(pet.getId(), Type.STATUS_CHANGED, pet, previousStatus);
+    }
+
+    public static PetChangeEvent removed(Long petId) {
+        return new PetChangeEvent(petId, Type.REMOVED, null, null);
+    }
+}
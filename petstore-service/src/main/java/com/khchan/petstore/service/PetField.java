@@ -0,0 +1,69 @@
+package com.khchan.petstore.service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of a {@link com.khchan.petstore.dto.Pet} a client can ask for with {@code ?fields=}.
+ * Id and version are always returned, since cursors and ETags are built from them.
+ */
+public enum PetField {
+    ID("id"),
+    NAME("name"),
+    STATUS("status"),
+    CATEGORY("category"),
+    PHOTO_URLS("photoUrls"),
+    TAGS("tags"),
+    VERSION("version");
+
+    public static final Set<PetField> ALL = Collections.unmodifiableSet(EnumSet.allOf(PetField.class));
+
+    private final String jsonName;
+
+    PetField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma separated list of JSON field names. A missing or blank list means every field.
+     *
+     * @throws IllegalArgumentException if a name does not match any field
+     */
+    public static Set<PetField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<PetField> parsed = EnumSet.of(ID, VERSION);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(fromJsonName(trimmed));
+            }
+        }
+        return parsed.equals(ALL) ? ALL : Collections.unmodifiableSet(parsed);
+    }
+
+    /**
+     * Stable, order-independent name of a field set, suitable for cache keys and ETags.
+     */
+    public static String key(Set<PetField> fields) {
+        return EnumSet.copyOf(fields).stream()
+            .map(PetField::getJsonName)
+            .collect(Collectors.joining("."));
+    }
+
+    private static PetField fromJsonName(String name) {
+        for (PetField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown pet field: " + name);
+    }
+}
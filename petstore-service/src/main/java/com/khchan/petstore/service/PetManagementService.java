@@ -8,6 +8,7 @@ import com.khchan.petstore.repository.BreedRepository;
 import com.khchan.petstore.repository.OwnerRepository;
 import com.khchan.petstore.repository.PetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,14 +18,20 @@ public class PetManagementService {
     private final PetRepository petRepository;
     private final OwnerRepository ownerRepository;
     private final BreedRepository breedRepository;
+    private final PetTransformer petTransformer;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public PetManagementService(PetRepository petRepository,
                                 OwnerRepository ownerRepository,
-                                BreedRepository breedRepository) {
+                                BreedRepository breedRepository,
+                                PetTransformer petTransformer,
+                                ApplicationEventPublisher eventPublisher) {
         this.petRepository = petRepository;
         this.ownerRepository = ownerRepository;
         this.breedRepository = breedRepository;
+        this.petTransformer = petTransformer;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -43,7 +50,9 @@ public class PetManagementService {
                 .orElseThrow(() -> new IllegalArgumentException("Owner not found: " + ownerId));
             owner.addPet(pet);
         }
-        return petRepository.save(pet);
+        PetEntity saved = petRepository.save(pet);
+        eventPublisher.publishEvent(PetChangeEvent.created(petTransformer.transformEntityToDTO(saved)));
+        return saved;
     }
 
     @Transactional
@@ -53,8 +62,14 @@ public class PetManagementService {
         }
         PetEntity pet = petRepository.findById(petId)
             .orElseThrow(() -> new IllegalArgumentException("Pet not found: " + petId));
+        Status previous = pet.getStatus();
         pet.setStatus(status);
-        return petRepository.save(pet);
+        PetEntity saved = petRepository.save(pet);
+        if (previous != status) {
+            eventPublisher.publishEvent(
+                PetChangeEvent.statusChanged(petTransformer.transformEntityToDTO(saved), previous));
+        }
+        return saved;
     }
 
     @Transactional
@@ -79,6 +94,7 @@ public class PetManagementService {
             throw new IllegalStateException("Pending pets cannot be deleted: " + petId);
         }
         petRepository.delete(pet);
+        eventPublisher.publishEvent(PetChangeEvent.removed(petId));
     }
 
     private void requireNonBlank(String value, String message) {
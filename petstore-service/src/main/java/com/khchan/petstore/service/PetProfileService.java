@@ -0,0 +1,216 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Appointment;
+import com.khchan.petstore.domain.MedicalRecord;
+import com.khchan.petstore.domain.PetInsurance;
+import com.khchan.petstore.domain.Vaccination;
+import com.khchan.petstore.domain.Veterinarian;
+import com.khchan.petstore.dto.AppointmentSummary;
+import com.khchan.petstore.dto.InsuranceSummary;
+import com.khchan.petstore.dto.MedicalRecordSummary;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetProfile;
+import com.khchan.petstore.dto.VaccinationSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads a pet together with its medical records, vaccinations, appointments and insurance. The five
+ * reads do not depend on each other, so each runs on the application task executor in its own
+ * read-only transaction and connection, and the profile takes about as long as the slowest of them.
+ *
+ * <p>The whole load shares one deadline. Every transaction gets the time left as its timeout, which
+ * reaches the JDBC statements as a query timeout. The caller stops waiting once the deadline passes and
+ * fails with {@link QueryTimeoutException}. When any read fails or times out, the reads still running
+ * are cancelled and the failure is rethrown as is.
+ */
+@Service
+public class PetProfileService {
+
+    private final PetService petService;
+    private final MedicalRecordService medicalRecordService;
+    private final VaccinationService vaccinationService;
+    private final AppointmentService appointmentService;
+    private final PetInsuranceService petInsuranceService;
+    private final PlatformTransactionManager transactionManager;
+    private final AsyncTaskExecutor executor;
+    private final Duration timeout;
+
+    @Autowired
+    public PetProfileService(PetService petService,
+                             MedicalRecordService medicalRecordService,
+                             VaccinationService vaccinationService,
+                             AppointmentService appointmentService,
+                             PetInsuranceService petInsuranceService,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                             AsyncTaskExecutor executor,
+                             @Value("${petstore.pet-profile.timeout:2s}") Duration timeout) {
+        this.petService = petService;
+        this.medicalRecordService = medicalRecordService;
+        this.vaccinationService = vaccinationService;
+        this.appointmentService = appointmentService;
+        this.petInsuranceService = petInsuranceService;
+        this.transactionManager = transactionManager;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the profile, or empty if the pet does not exist
+     */
+    public Optional<PetProfile> findProfile(Long petId) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Future<?>> started = new ArrayList<>();
+        try {
+            Future<Pet> pet = submit(started, deadline, () -> petService.findPet(petId));
+            Future<List<MedicalRecordSummary>> medicalRecords = submit(started, deadline,
+                () -> medicalRecordService.findRecordsForPet(petId).stream()
+                    .map(PetProfileService::toSummary)
+                    .toList());
+            Future<List<VaccinationSummary>> vaccinations = submit(started, deadline,
+                () -> vaccinationService.findVaccinationsForPet(petId).stream()
+                    .map(PetProfileService::toSummary)
+                    .toList());
+            Future<List<AppointmentSummary>> appointments = submit(started, deadline,
+                () -> appointmentService.findAppointmentsForPet(petId).stream()
+                    .map(PetProfileService::toSummary)
+                    .toList());
+            Future<InsuranceSummary> insurance = submit(started, deadline, () -> findInsurance(petId));
+
+            Pet found = await(pet, deadline);
+            if (found == null) {
+                return Optional.empty();
+            }
+            return Optional.of(PetProfile.builder()
+                .pet(found)
+                .medicalRecords(await(medicalRecords, deadline))
+                .vaccinations(await(vaccinations, deadline))
+                .appointments(await(appointments, deadline))
+                .insurance(await(insurance, deadline))
+                .build());
+        } finally {
+            // No-op for reads that completed; interrupts and rolls back the ones still running
+            started.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> Future<T> submit(List<Future<?>> started, long deadline, Callable<T> read) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds; round up so a read is never cut short of the deadline
+        transaction.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime() + 999_999_999)));
+        Future<T> future = executor.submit(() -> transaction.execute(status -> {
+            // Nothing to commit; rolling back also tolerates a participating read that marked it rollback-only
+            status.setRollbackOnly();
+            try {
+                return read.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        started.add(future);
+        return future;
+    }
+
+    private <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Pet profile not loaded within " + timeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading pet profile", e);
+        }
+    }
+
+    private InsuranceSummary findInsurance(Long petId) {
+        PetInsurance insurance;
+        try {
+            insurance = petInsuranceService.findInsuranceForPet(petId);
+        } catch (IllegalArgumentException e) {
+            // Not insured
+            return null;
+        }
+        return InsuranceSummary.builder()
+            .id(insurance.getId())
+            .policyNumber(insurance.getPolicyNumber())
+            .provider(insurance.getProvider())
+            .coverageAmount(insurance.getCoverageAmount())
+            .monthlyPremium(insurance.getMonthlyPremium())
+            .startDate(insurance.getStartDate())
+            .endDate(insurance.getEndDate())
+            .status(insurance.getStatus())
+            .build();
+    }
+
+    private static MedicalRecordSummary toSummary(MedicalRecord record) {
+        Veterinarian veterinarian = record.getVeterinarian();
+        return MedicalRecordSummary.builder()
+            .id(record.getId())
+            .visitDate(record.getVisitDate())
+            .diagnosis(record.getDiagnosis())
+            .treatment(record.getTreatment())
+            .notes(record.getNotes())
+            .weight(record.getWeight())
+            .veterinarianId(veterinarian != null ? veterinarian.getId() : null)
+            .veterinarianName(fullName(veterinarian))
+            .build();
+    }
+
+    private static VaccinationSummary toSummary(Vaccination vaccination) {
+        Veterinarian veterinarian = vaccination.getAdministeredBy();
+        return VaccinationSummary.builder()
+            .id(vaccination.getId())
+            .vaccineName(vaccination.getVaccineName())
+            .dateAdministered(vaccination.getDateAdministered())
+            .nextDueDate(vaccination.getNextDueDate())
+            .notes(vaccination.getNotes())
+            .administeredById(veterinarian != null ? veterinarian.getId() : null)
+            .administeredByName(fullName(veterinarian))
+            .build();
+    }
+
+    private static AppointmentSummary toSummary(Appointment appointment) {
+        Veterinarian veterinarian = appointment.getVeterinarian();
+        return AppointmentSummary.builder()
+            .id(appointment.getId())
+            .dateTime(appointment.getDateTime())
+            .reason(appointment.getReason())
+            .status(appointment.getStatus())
+            .veterinarianId(veterinarian != null ? veterinarian.getId() : null)
+            .veterinarianName(fullName(veterinarian))
+            .build();
+    }
+
+    private static String fullName(Veterinarian veterinarian) {
+        return veterinarian != null ? veterinarian.getFirstName() + " " + veterinarian.getLastName() : null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.khchan.petstore.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for pet search pages. Encodes the ordering and the sort key of the last pet
+ * on a page, so the next page seeks past it and a cursor cannot be replayed under another ordering.
+ */
+final class PetSearchCursor {
+
+    private static final String PREFIX = "s";
+    private static final String NAME_MARK = "=";
+
+    record Position(long id, String name) {
+    }
+
+    private PetSearchCursor() {
+    }
+
+    static String encode(PetSearchSort sort, Long lastId, String lastName) {
+        String raw = PREFIX + ':' + sort.getParameter() + ':' + lastId;
+        if (sort.isByName()) {
+            // A name is marked so that a missing name stays distinct from an empty one
+            raw += ':' + (lastName == null ? "" : NAME_MARK + lastName);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another ordering
+     */
+    static Position decode(String cursor, PetSearchSort sort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        // The name comes last so it may itself contain ':'
+        String[] parts = raw.split(":", 4);
+        if (parts.length != (sort.isByName() ? 4 : 3) || !PREFIX.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (!sort.getParameter().equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + parts[1] + ", not " + sort.getParameter());
+        }
+        String name = null;
+        if (sort.isByName() && !parts[3].isEmpty()) {
+            if (!parts[3].startsWith(NAME_MARK)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            name = parts[3].substring(NAME_MARK.length());
+        }
+        try {
+            return new Position(Long.parseLong(parts[2]), name);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.PetEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.SortDirection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Orderings a client can ask for with {@code ?sort=} on pet searches. Id breaks ties so every
+ * ordering is total, which is what lets a keyset cursor resume exactly where a page ended.
+ *
+ * <p>Name orderings sort the raw column, so the {@code (name, id)} index can serve them, with
+ * missing names first when ascending and last when descending. The seek spells out where a missing
+ * name falls, since comparisons never match null.
+ */
+enum PetSearchSort {
+    ID("id", false, false),
+    ID_DESC("-id", false, true),
+    NAME("name", true, false),
+    NAME_DESC("-name", true, true);
+
+    private final String parameter;
+    private final boolean byName;
+    private final boolean descending;
+
+    PetSearchSort(String parameter, boolean byName, boolean descending) {
+        this.parameter = parameter;
+        this.byName = byName;
+        this.descending = descending;
+    }
+
+    String getParameter() {
+        return parameter;
+    }
+
+    boolean isByName() {
+        return byName;
+    }
+
+    /**
+     * A missing or blank sort means {@link #ID}.
+     *
+     * @throws IllegalArgumentException if the value does not match any ordering
+     */
+    static PetSearchSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return ID;
+        }
+        for (PetSearchSort value : values()) {
+            if (value.parameter.equals(sort.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + sort);
+    }
+
+    /**
+     * Applies this ordering and, when {@code after} is given, seeks past that position.
+     */
+    Specification<PetEntity> seek(PetSearchCursor.Position after) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Path<String> name = root.get("name");
+            query.orderBy(byName ? List.of(order(cb, name), order(cb, id)) : List.of(order(cb, id)));
+            if (after == null) {
+                return null;
+            }
+            Predicate idAfter = descending ? cb.lessThan(id, after.id()) : cb.greaterThan(id, after.id());
+            if (!byName) {
+                return idAfter;
+            }
+            if (after.name() == null) {
+                // Missing names come first ascending, so every named pet follows; descending, none do
+                Predicate nullAfter = cb.and(cb.isNull(name), idAfter);
+                return descending ? nullAfter : cb.or(nullAfter, cb.isNotNull(name));
+            }
+            Predicate nameAfter = descending ? cb.lessThan(name, after.name()) : cb.greaterThan(name, after.name());
+            Predicate seek = cb.or(nameAfter, cb.and(cb.equal(name, after.name()), idAfter));
+            return descending ? cb.or(seek, cb.isNull(name)) : seek;
+        };
+    }
+
+    private Order order(CriteriaBuilder cb, Expression<?> expression) {
+        // Nulls first ascending and last descending; Hibernate omits the clause where that is the default
+        return ((HibernateCriteriaBuilder) cb).sort((JpaExpression<?>) expression,
+            descending ? SortDirection.DESCENDING : SortDirection.ASCENDING,
+            descending ? NullPrecedence.LAST : NullPrecedence.FIRST);
+    }
+}
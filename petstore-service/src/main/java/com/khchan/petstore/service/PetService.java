@@ -1,47 +1,420 @@
 package com.khchan.petstore.service;
 
 import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.dto.CoalescingStats;
 import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetLookupResult;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.dto.PetSearchFilter;
 import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.PetSpecifications;
+import com.khchan.petstore.repository.PetSummaryView;
+import com.khchan.petstore.repository.PetVersionView;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
 public class PetService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int STREAM_CHUNK_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 10_000;
+    static final int MAX_MULTI_GET_SIZE = 100;
+    // Matches hibernate.jdbc.batch_size so every flush sends full JDBC batches
+    static final int WRITE_CHUNK_SIZE = 50;
+
     private final PetRepository petRepository;
     private final PetTransformer petTransformer;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SingleFlight<PetLookupKey, Pet> petLookups = new SingleFlight<>();
 
     @Autowired
-    public PetService(PetRepository petRepository, PetTransformer petTransformer) {
+    public PetService(PetRepository petRepository, PetTransformer petTransformer, EntityManager entityManager,
+                      ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.petRepository = petRepository;
         this.petTransformer = petTransformer;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
+    /**
+     * Every pet, read with one query for the pets and their categories plus one each for tags and
+     * photo urls.
+     */
     public List<Pet> findAllPets() {
-        return petRepository.findAll().stream()
-            .map(petTransformer::transformEntityToDTO)
-            .collect(Collectors.toList());
+        return petTransformer.transformEntitiesToDTOs(petRepository.findAllWithCategory());
+    }
+
+    /**
+     * Returns one keyset page of pets ordered by id, restricted to {@code fields}. Pets are read
+     * through projection queries, and tags or photo urls are only queried when requested, so
+     * unrequested associations are never loaded.
+     *
+     * @param after opaque cursor from a previous page, or null for the first page
+     * @param limit requested page size; null means {@link #DEFAULT_PAGE_SIZE}, anything above
+     *              {@link #MAX_PAGE_SIZE} is clamped
+     */
+    public PetPage findPets(String after, Integer limit, Set<PetField> fields) {
+        int pageSize = resolvePageSize(limit);
+        long afterId = resolveAfterId(after);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<? extends PetSummaryView> slice = fields.contains(PetField.CATEGORY)
+            ? petRepository.findCategorySummariesByIdGreaterThan(afterId, Limit.of(pageSize + 1))
+            : petRepository.findSummariesByIdGreaterThan(afterId, Limit.of(pageSize + 1));
+        boolean hasMore = slice.size() > pageSize;
+        int size = hasMore ? pageSize : slice.size();
+
+        return PetPage.builder()
+            .items(petTransformer.transformViewsToDTOs(slice.subList(0, size), fields))
+            .nextCursor(hasMore ? PetCursor.encode(slice.get(size - 1).getId()) : null)
+            .build();
+    }
+
+    /**
+     * Returns one keyset page of the pets matching every filter that is set. Filtering, ordering and
+     * the seek past {@code after} all happen in the database; a page costs one query for the pets and
+     * their categories plus one each for tags and photo urls.
+     *
+     * @param sort  {@code id}, {@code name}, or either prefixed with {@code -} for descending;
+     *              null means {@code id}
+     * @param after opaque cursor from a previous page of the same search, or null for the first page
+     * @param limit requested page size, as for {@link #findPets(String, Integer, Set)}
+     */
+    public PetPage searchPets(PetSearchFilter filter, String sort, String after, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PetSearchSort order = PetSearchSort.parse(sort);
+
+        List<Specification<PetEntity>> specs = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            specs.add(PetSpecifications.hasStatus(filter.getStatus()));
+        }
+        if (filter.getCategoryId() != null) {
+            specs.add(PetSpecifications.inCategory(filter.getCategoryId()));
+        }
+        if (filter.getBreedId() != null) {
+            specs.add(PetSpecifications.ofBreed(filter.getBreedId()));
+        }
+        if (filter.getOwnerId() != null) {
+            specs.add(PetSpecifications.ownedBy(filter.getOwnerId()));
+        }
+        if (filter.getTag() != null && !filter.getTag().isBlank()) {
+            specs.add(PetSpecifications.taggedWith(filter.getTag()));
+        }
+        specs.add(order.seek(after == null ? null : PetSearchCursor.decode(after, order)));
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<PetEntity> slice = petRepository.findBy(Specification.allOf(specs),
+            query -> query.project("category").limit(pageSize + 1).all());
+        boolean hasMore = slice.size() > pageSize;
+        int size = hasMore ? pageSize : slice.size();
+
+        List<Pet> items = petTransformer.transformEntitiesToDTOs(slice.subList(0, size));
+        PetEntity last = hasMore ? slice.get(size - 1) : null;
+        return PetPage.builder()
+            .items(items)
+            .nextCursor(last != null ? PetSearchCursor.encode(order, last.getId(), last.getName()) : null)
+            .build();
+    }
+
+    /**
+     * Computes the validator of the page {@link #findPets} would return for the same arguments,
+     * from an id/version scan only. Matches {@link #fingerprint(PetPage)} of that page.
+     */
+    public String findPageFingerprint(String after, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        List<PetVersionView> versions =
+            petRepository.findVersionsByIdGreaterThan(resolveAfterId(after), Limit.of(pageSize + 1));
+        boolean hasMore = versions.size() > pageSize;
+        StringBuilder key = new StringBuilder();
+        for (int i = 0, size = hasMore ? pageSize : versions.size(); i < size; i++) {
+            appendVersion(key, versions.get(i).getId(), versions.get(i).getVersion());
+        }
+        return digest(key, hasMore);
+    }
+
+    /**
+     * Validator for a page that has already been built; changes whenever a pet on the page is
+     * added, removed or updated, or the page stops being the last one.
+     */
+    public String fingerprint(PetPage page) {
+        StringBuilder key = new StringBuilder();
+        for (Pet pet : page.getItems()) {
+            appendVersion(key, pet.getId(), pet.getVersion());
+        }
+        return digest(key, page.getNextCursor() != null);
     }
 
+    /**
+     * Pushes every pet to {@code sink} in id order while the rows are still being read.
+     * Pets are mapped {@link #STREAM_CHUNK_SIZE} at a time, with one query for the tags and one for the
+     * photo urls of each chunk, and the persistence context is cleared after every chunk, so only one
+     * chunk of entities is ever held in memory regardless of catalog size.
+     */
+    public void streamPets(Consumer<Pet> sink) {
+        try (Stream<PetEntity> pets = petRepository.streamAllOrderedById()) {
+            Iterator<PetEntity> iterator = pets.iterator();
+            List<PetEntity> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    petTransformer.transformEntitiesToDTOs(chunk).forEach(sink);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the pet, or null if no pet has this id
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Pet findPet(Long id) {
-        PetEntity petEntity = petRepository.findById(id).orElse(null);
-        return petTransformer.transformEntityToDTO(petEntity);
+        return findPet(id, PetField.ALL);
+    }
+
+    /**
+     * Same as {@link #findPet(Long)}, restricted to {@code fields}; anything short of the full field
+     * set is read through projection queries.
+     *
+     * <p>Outside a transaction, concurrent lookups of the same pet and field set are coalesced: one
+     * caller loads the pet in its own read-only transaction and all callers waiting on it receive the
+     * same DTO, which they must not modify. Callers inside a transaction always load their own copy
+     * so they see that transaction's writes.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Pet findPet(Long id, Set<PetField> fields) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loadPet(id, fields);
+        }
+        return petLookups.execute(new PetLookupKey(id, fields),
+            () -> readOnlyTransaction.execute(status -> loadPet(id, fields)));
+    }
+
+    /**
+     * Looks up several pets at once, answering in request order with a marker for every id that does
+     * not exist. Pets, tags and photo urls are each read with a single IN query, regardless of how
+     * many ids are requested.
+     *
+     * @throws IllegalArgumentException if more than {@link #MAX_MULTI_GET_SIZE} ids are requested
+     */
+    public List<PetLookupResult> findPetsByIds(List<Long> ids) {
+        if (ids.size() > MAX_MULTI_GET_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_MULTI_GET_SIZE + " ids can be requested at once");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        Map<Long, Pet> petsById = new HashMap<>();
+        if (!distinctIds.isEmpty()) {
+            List<Pet> pets = petTransformer.transformViewsToDTOs(
+                petRepository.findCategorySummariesByIdIn(distinctIds), PetField.ALL);
+            for (Pet pet : pets) {
+                petsById.put(pet.getId(), pet);
+            }
+        }
+
+        List<PetLookupResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Pet pet = petsById.get(id);
+            results.add(PetLookupResult.builder()
+                .id(id)
+                .found(pet != null)
+                .pet(pet)
+                .build());
+        }
+        return results;
+    }
+
+    /**
+     * Counters of the {@link #findPet} coalescing layer, including how many loads it saved.
+     */
+    public CoalescingStats getPetLookupStats() {
+        return petLookups.stats();
+    }
+
+    /**
+     * Reads only the version column, so callers can validate an ETag without loading the pet.
+     */
+    public Optional<Long> findPetVersion(Long id) {
+        return petRepository.findVersionById(id);
     }
 
     @Transactional
     public Pet savePet(Pet pet) {
-        PetEntity petEntity = petRepository.save(petTransformer.transformDTOToEntity(pet));
-        return petTransformer.transformEntityToDTO(petEntity);
+        PetEntity petEntity = petTransformer.transformDTOToEntity(pet);
+        if (petEntity.getId() != null && petEntity.getVersion() == null) {
+            // Clients that don't echo the version back get last-write-wins instead of a stale-state failure
+            petRepository.findVersionById(petEntity.getId()).ifPresent(petEntity::setVersion);
+        }
+        // Flush so the returned DTO carries the version the update produced
+        boolean created = petEntity.getId() == null;
+        Pet saved = petTransformer.transformEntityToDTO(petRepository.saveAndFlush(petEntity));
+        eventPublisher.publishEvent(created ? PetChangeEvent.created(saved) : PetChangeEvent.updated(saved));
+        return saved;
+    }
+
+    /**
+     * Creates or updates up to {@link #MAX_BATCH_SIZE} pets in one transaction. Pets are written in
+     * chunks of {@link #WRITE_CHUNK_SIZE}: each chunk is flushed as JDBC batches and then cleared from
+     * the persistence context, so neither round trips nor memory grow per pet.
+     *
+     * <p>The existing pets of a chunk are loaded with their tags in one query and changed in place, so
+     * an update costs no lookup per pet. Only the name, status, category and, when given, tags are
+     * written; a pet sent without a version gets the same last-write-wins as {@link #savePet}.
+     *
+     * @throws ObjectOptimisticLockingFailureException if a pet does not exist or its version is stale
+     */
+    @Transactional
+    public List<Pet> savePets(List<Pet> pets) {
+        if (pets.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " pets can be saved per batch");
+        }
+        List<Pet> saved = new ArrayList<>(pets.size());
+        for (int from = 0; from < pets.size(); from += WRITE_CHUNK_SIZE) {
+            List<Pet> chunk = pets.subList(from, Math.min(from + WRITE_CHUNK_SIZE, pets.size()));
+            List<PetEntity> written = writeChunk(petTransformer.transformDTOsToEntities(chunk));
+            petRepository.flush();
+            List<Pet> chunkPets = petTransformer.transformWrittenToDTOs(written);
+            for (int i = 0; i < chunkPets.size(); i++) {
+                Pet pet = chunkPets.get(i);
+                boolean created = chunk.get(i).getId() == null;
+                eventPublisher.publishEvent(created ? PetChangeEvent.created(pet) : PetChangeEvent.updated(pet));
+                saved.add(pet);
+            }
+            entityManager.clear();
+        }
+        return saved;
     }
 
     @Transactional
     public void removePet(Long id) {
         petRepository.deleteById(id);
+        eventPublisher.publishEvent(PetChangeEvent.removed(id));
+    }
+
+    /**
+     * Persists the new pets of a chunk and copies the others onto their managed entities, returning
+     * the managed pets in the order they were given.
+     */
+    private List<PetEntity> writeChunk(List<PetEntity> entities) {
+        Set<Long> ids = new HashSet<>();
+        for (PetEntity petEntity : entities) {
+            if (petEntity.getId() != null) {
+                ids.add(petEntity.getId());
+            }
+        }
+        Map<Long, PetEntity> existing = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (PetEntity petEntity : petRepository.findWithTagsByIdIn(ids)) {
+                existing.put(petEntity.getId(), petEntity);
+            }
+        }
+
+        List<PetEntity> written = new ArrayList<>(entities.size());
+        List<PetEntity> created = new ArrayList<>();
+        for (PetEntity petEntity : entities) {
+            if (petEntity.getId() == null) {
+                created.add(petEntity);
+                written.add(petEntity);
+                continue;
+            }
+            PetEntity managed = existing.get(petEntity.getId());
+            if (managed == null
+                || petEntity.getVersion() != null && !petEntity.getVersion().equals(managed.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(PetEntity.class, petEntity.getId());
+            }
+            managed.setName(petEntity.getName());
+            managed.setStatus(petEntity.getStatus());
+            managed.setCategory(petEntity.getCategory());
+            if (petEntity.getTags() != null) {
+                managed.getTags().clear();
+                managed.getTags().addAll(petEntity.getTags());
+            }
+            written.add(managed);
+        }
+        // Ids come from the pooled sequence, so the inserts go out as one JDBC batch at flush
+        petRepository.saveAll(created);
+        return written;
+    }
+
+    private Pet loadPet(Long id, Set<PetField> fields) {
+        if (fields.containsAll(PetField.ALL)) {
+            return petRepository.findById(id)
+                .map(petTransformer::transformEntityToDTO)
+                .orElse(null);
+        }
+        Optional<? extends PetSummaryView> view = fields.contains(PetField.CATEGORY)
+            ? petRepository.findCategorySummaryById(id)
+            : petRepository.findSummaryById(id);
+        return view
+            .map(summary -> petTransformer.transformViewsToDTOs(List.of(summary), fields).get(0))
+            .orElse(null);
+    }
+
+    /**
+     * Id a page starts after, as {@link #findPets(String, Integer, Set)} reads it from a cursor.
+     *
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public static long resolveAfterId(String after) {
+        return after == null ? 0L : PetCursor.decode(after);
+    }
+
+    static void appendVersion(StringBuilder key, Long id, Long version) {
+        key.append(id).append(':').append(version).append(',');
+    }
+
+    static String digest(StringBuilder key, boolean hasMore) {
+        key.append(hasMore ? '+' : '.');
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Page size {@link #findPets(String, Integer, Set)} serves for a requested limit.
+     *
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + limit);
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private record PetLookupKey(Long id, Set<PetField> fields) {
     }
 }
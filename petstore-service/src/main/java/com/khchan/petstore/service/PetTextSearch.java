@@ -0,0 +1,176 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetSuggestion;
+import com.khchan.petstore.dto.Tag;
+import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.PetTextView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Search-box lookups over pet names and tag names, answered from an in-process {@link TextIndex}.
+ * The index is built from a streaming scan once the application is ready and kept current from
+ * committed {@link PetChangeEvent}s, which the services that create, update or delete pets publish,
+ * including deletes that cascade from an owner. Writes that go around those services, such as direct
+ * repository calls, only show up after {@link #rebuild()} is called again; nothing rebuilds on a timer.
+ */
+@Slf4j
+@Service
+public class PetTextSearch {
+
+    static final int DEFAULT_SUGGESTIONS = 10;
+    static final int MAX_SUGGESTIONS = 50;
+
+    private final PetRepository petRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TextIndex index = new TextIndex();
+    /**
+     * Changes committed while a rebuild is scanning, replayed onto the new index before it goes live.
+     * Null when no rebuild is running.
+     */
+    private List<PetChangeEvent> changesDuringRebuild;
+
+    @Autowired
+    public PetTextSearch(PetRepository petRepository, PlatformTransactionManager transactionManager) {
+        this.petRepository = petRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Pets whose name or tags match every word of {@code query}, best first. Words match exactly,
+     * as a prefix, or with one typo (two for words of eight letters or more).
+     *
+     * @param limit number of suggestions; null means {@link #DEFAULT_SUGGESTIONS}, anything above
+     *              {@link #MAX_SUGGESTIONS} is clamped
+     */
+    public List<PetSuggestion> suggest(String query, Integer limit) {
+        int size = limit == null ? DEFAULT_SUGGESTIONS : Math.min(limit, MAX_SUGGESTIONS);
+        if (size < 1) {
+            throw new IllegalArgumentException("Suggestion limit must be positive: " + limit);
+        }
+        List<TextIndex.Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.stream()
+            .map(hit -> PetSuggestion.builder()
+                .id(hit.petId())
+                .name(hit.name())
+                .score(hit.score())
+                .build())
+            .toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPetChange(PetChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(index, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index from a streaming scan of names and tags while the current index keeps
+     * serving lookups, then swaps the new index in. Only one pet's rows are held at a time.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TextIndex rebuilt = new TextIndex();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> scanInto(rebuilt));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // The scan may or may not have seen these; replaying them in commit order is safe either way
+            changesDuringRebuild.forEach(event -> apply(rebuilt, event));
+            changesDuringRebuild = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Pet text index rebuilt with {} pets", rebuilt.size());
+    }
+
+    private void scanInto(TextIndex target) {
+        try (Stream<PetTextView> rows = petRepository.streamTextOrderedByPetId()) {
+            Iterator<PetTextView> iterator = rows.iterator();
+            Long petId = null;
+            String name = null;
+            List<String> tagNames = new ArrayList<>();
+            while (iterator.hasNext()) {
+                PetTextView row = iterator.next();
+                if (!row.getPetId().equals(petId)) {
+                    if (petId != null) {
+                        target.put(petId, name, tagNames);
+                    }
+                    petId = row.getPetId();
+                    name = row.getName();
+                    tagNames = new ArrayList<>();
+                }
+                if (row.getTagName() != null) {
+                    tagNames.add(row.getTagName());
+                }
+            }
+            if (petId != null) {
+                target.put(petId, name, tagNames);
+            }
+        }
+    }
+
+    private static void apply(TextIndex target, PetChangeEvent event) {
+        if (event.getType() == PetChangeEvent.Type.REMOVED) {
+            target.remove(event.getPetId());
+            return;
+        }
+        Pet pet = event.getPet();
+        List<String> tagNames = pet.getTags() == null
+            ? List.of()
+            : pet.getTags().stream().map(Tag::getName).toList();
+        target.put(pet.getId(), pet.getName(), tagNames);
+    }
+}
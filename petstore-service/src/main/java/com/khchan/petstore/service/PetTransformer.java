@@ -1,60 +1,304 @@
 package com.khchan.petstore.service;
 
+import com.khchan.petstore.domain.Category;
 import com.khchan.petstore.domain.Media;
 import com.khchan.petstore.domain.TagEntity;
 import com.khchan.petstore.dto.Pet;
 import com.khchan.petstore.domain.PetEntity;
 import com.khchan.petstore.dto.Tag;
+import com.khchan.petstore.repository.PetCategorySummaryView;
+import com.khchan.petstore.repository.PetPhotoView;
+import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.PetSummaryView;
+import com.khchan.petstore.repository.PetTagView;
+import com.khchan.petstore.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Maps between pet entities and DTOs. Every pet on every read goes through here, so the mappings are
+ * written out field by field: DTOs are created with their constructors, and collections are copied
+ * with indexed loops into lists sized up front, with no builder, stream or lambda allocated per pet.
+ * The write path keeps {@code PetEntity}'s builder, which leaves the collections it is not given null
+ * instead of allocating five empty lists. {@code PetTransformerBenchmark} measures the allocation per
+ * mapped pet.
+ *
+ * <p>Within one mapped page, categories and tags come from a {@link PetValueInterner} scope, so pets of
+ * that page sharing a category or tag share the instance.
+ */
 @Service
 public class PetTransformer {
-    Pet transformEntityToDTO(PetEntity petEntity) {
-        Pet.PetBuilder petBuilder = Pet.builder()
-            .id(petEntity.getId())
-            .name(petEntity.getName())
-            .status(petEntity.getStatus())
-            .category(petEntity.getCategory());
 
+    private final PetRepository petRepository;
+    private final TagRepository tagRepository;
+    private final PetValueInterner interner;
+
+    @Autowired
+    public PetTransformer(PetRepository petRepository, TagRepository tagRepository, PetValueInterner interner) {
+        this.petRepository = petRepository;
+        this.tagRepository = tagRepository;
+        this.interner = interner;
+    }
+
+    /**
+     * Maps a single pet, initializing its tag and media collections. Use
+     * {@link #transformEntitiesToDTOs} for more than one pet.
+     */
+    Pet transformEntityToDTO(PetEntity petEntity) {
+        Pet pet = transformScalarsToDTO(petEntity);
+        pet.setCategory(petEntity.getCategory());
         if (petEntity.getMedia() != null) {
-            petBuilder = petBuilder
-                .photoUrls(petEntity.getMedia().stream()
-                    .map(Media::getUrl)
-                    .collect(Collectors.toList()));
+            pet.setPhotoUrls(toPhotoUrls(petEntity.getMedia()));
         }
-
         if (petEntity.getTags() != null) {
-            petBuilder = petBuilder
-                .tags(petEntity.getTags().stream()
-                    .map(tag -> Tag.builder()
-                        .id(tag.getId())
-                        .name(tag.getName())
-                        .build())
-                    .collect(Collectors.toList()));
+            pet.setTags(toTags(petEntity.getTags()));
+        }
+        return pet;
+    }
+
+    /**
+     * Maps a page of pets with one query for the tags and one for the photo urls of all of them,
+     * instead of initializing every pet's lazy collections in turn. The entities' own collections are
+     * never touched. Categories are taken from the entities as they are, so the page query should fetch
+     * them.
+     */
+    List<Pet> transformEntitiesToDTOs(List<PetEntity> petEntities) {
+        PetValueInterner.Scope values = interner.scope();
+        List<Pet> pets = new ArrayList<>(petEntities.size());
+        Map<Long, Pet> petsById = new HashMap<>(petEntities.size() * 4 / 3 + 1);
+        for (int i = 0; i < petEntities.size(); i++) {
+            PetEntity petEntity = petEntities.get(i);
+            Pet pet = transformScalarsToDTO(petEntity);
+            Category category = petEntity.getCategory();
+            if (category != null) {
+                pet.setCategory(values.category(category.getId(), category.getName()));
+            }
+            pets.add(pet);
+            petsById.put(pet.getId(), pet);
+        }
+        loadAssociations(petsById, PetField.ALL, values);
+        return pets;
+    }
+
+    /**
+     * Maps pets that were just written. Categories and tags are taken from the entities, which must
+     * have their tags loaded. Media are never initialized: the photo urls of all the pets that were
+     * loaded from the database are read with one query, and pets built from a request have none.
+     */
+    List<Pet> transformWrittenToDTOs(List<PetEntity> petEntities) {
+        List<Pet> pets = new ArrayList<>(petEntities.size());
+        Map<Long, Pet> loadedById = new HashMap<>(petEntities.size() * 4 / 3 + 1);
+        for (int i = 0; i < petEntities.size(); i++) {
+            PetEntity petEntity = petEntities.get(i);
+            Pet pet = transformScalarsToDTO(petEntity);
+            pet.setCategory(petEntity.getCategory());
+            if (petEntity.getTags() != null) {
+                pet.setTags(toTags(petEntity.getTags()));
+            }
+            pets.add(pet);
+            if (petEntity.getMedia() != null) {
+                loadedById.put(pet.getId(), pet);
+            }
+        }
+        loadAssociations(loadedById, EnumSet.of(PetField.PHOTO_URLS), interner.scope());
+        return pets;
+    }
+
+    /**
+     * Maps a page of projection rows holding only the requested fields, then fills in the requested
+     * tags and photo urls with one query per association for the whole page.
+     */
+    List<Pet> transformViewsToDTOs(List<? extends PetSummaryView> views, Set<PetField> fields) {
+        PetValueInterner.Scope values = interner.scope();
+        List<Pet> pets = new ArrayList<>(views.size());
+        Map<Long, Pet> petsById = new HashMap<>(views.size() * 4 / 3 + 1);
+        for (int i = 0; i < views.size(); i++) {
+            Pet pet = transformViewToDTO(views.get(i), fields, values);
+            pets.add(pet);
+            petsById.put(pet.getId(), pet);
         }
+        loadAssociations(petsById, fields, values);
+        return pets;
+    }
+
+    /**
+     * Builds a DTO from the pet's own columns only, without touching its category, tag or media
+     * collections, which are left for the caller to fill in.
+     */
+    private static Pet transformScalarsToDTO(PetEntity petEntity) {
+        Pet pet = new Pet();
+        pet.setId(petEntity.getId());
+        pet.setName(petEntity.getName());
+        pet.setStatus(petEntity.getStatus());
+        pet.setVersion(petEntity.getVersion());
+        return pet;
+    }
+
+    /**
+     * Builds a DTO holding only the requested scalar fields and category. Tags and photo urls are
+     * not part of the projection and are left for the caller to fill in.
+     */
+    private static Pet transformViewToDTO(PetSummaryView view, Set<PetField> fields,
+                                          PetValueInterner.Scope values) {
+        Pet pet = new Pet();
+        pet.setId(view.getId());
+        pet.setVersion(view.getVersion());
+
+        if (fields.contains(PetField.NAME)) {
+            pet.setName(view.getName());
+        }
+
+        if (fields.contains(PetField.STATUS)) {
+            pet.setStatus(view.getStatus());
+        }
+
+        if (fields.contains(PetField.CATEGORY) && view instanceof PetCategorySummaryView categoryView
+            && categoryView.getCategoryId() != null) {
+            pet.setCategory(values.category(categoryView.getCategoryId(), categoryView.getCategoryName()));
+        }
+
+        return pet;
+    }
 
-        return petBuilder.build();
+    /**
+     * Fills in the requested tags and photo urls of already mapped pets, keyed by pet id, with one
+     * query per association for all of them. Pets without any get empty lists.
+     */
+    private void loadAssociations(Map<Long, Pet> petsById, Set<PetField> fields, PetValueInterner.Scope values) {
+        if (petsById.isEmpty()) {
+            return;
+        }
+        if (fields.contains(PetField.TAGS)) {
+            petsById.values().forEach(pet -> pet.setTags(new ArrayList<>()));
+            for (PetTagView tag : petRepository.findTagsByPetIdIn(petsById.keySet())) {
+                petsById.get(tag.getPetId()).getTags().add(values.tag(tag.getId(), tag.getName()));
+            }
+        }
+        if (fields.contains(PetField.PHOTO_URLS)) {
+            petsById.values().forEach(pet -> pet.setPhotoUrls(new ArrayList<>()));
+            for (PetPhotoView photo : petRepository.findPhotoUrlsByPetIdIn(petsById.keySet())) {
+                petsById.get(photo.getPetId()).getPhotoUrls().add(photo.getUrl());
+            }
+        }
     }
 
     PetEntity transformDTOToEntity(Pet petDTO) {
-        PetEntity.PetEntityBuilder petEntityBuilder = PetEntity.builder()
-            .id(petDTO.getId())
-            .name(petDTO.getName())
-            .status(petDTO.getStatus())
-            .category(petDTO.getCategory());
-
-        if (petDTO.getTags() != null) {
-            petEntityBuilder = petEntityBuilder
-                .tags(petDTO.getTags().stream()
-                    .map(tag -> TagEntity.builder()
-                        .id(tag.getId())
-                        .name(tag.getName())
-                        .build())
-                    .collect(Collectors.toList()));
-        }
-
-        return petEntityBuilder.build();
+        return transformDTOsToEntities(List.of(petDTO)).get(0);
+    }
+
+    /**
+     * Maps pets for writing. Tags are resolved for all the pets at once: the ones that carry an id with
+     * one lookup by id, the others with one lookup by name, and names that don't exist yet are created
+     * together. The cost of a write therefore does not grow with its number of tags. Tags are never
+     * renamed through a pet, and tags with neither id nor name are dropped.
+     *
+     * @throws IllegalArgumentException if a tag id does not exist
+     */
+    List<PetEntity> transformDTOsToEntities(List<Pet> petDTOs) {
+        ResolvedTags resolved = resolveTags(petDTOs);
+        List<PetEntity> petEntities = new ArrayList<>(petDTOs.size());
+        for (int i = 0; i < petDTOs.size(); i++) {
+            Pet petDTO = petDTOs.get(i);
+            PetEntity.PetEntityBuilder petEntityBuilder = PetEntity.builder()
+                .id(petDTO.getId())
+                .name(petDTO.getName())
+                .status(petDTO.getStatus())
+                .category(petDTO.getCategory())
+                .version(petDTO.getVersion());
+
+            if (petDTO.getTags() != null) {
+                petEntityBuilder = petEntityBuilder.tags(toTagEntities(petDTO.getTags(), resolved));
+            }
+            petEntities.add(petEntityBuilder.build());
+        }
+        return petEntities;
+    }
+
+    private record ResolvedTags(Map<Long, TagEntity> byId, Map<String, TagEntity> byName) {
+    }
+
+    private ResolvedTags resolveTags(List<Pet> petDTOs) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (Pet petDTO : petDTOs) {
+            if (petDTO.getTags() != null) {
+                for (Tag tag : petDTO.getTags()) {
+                    if (tag.getId() != null) {
+                        ids.add(tag.getId());
+                    } else if (tag.getName() != null) {
+                        names.add(tag.getName());
+                    }
+                }
+            }
+        }
+
+        Map<Long, TagEntity> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (TagEntity tagEntity : tagRepository.findAllById(ids)) {
+                byId.put(tagEntity.getId(), tagEntity);
+            }
+            for (Long id : ids) {
+                if (!byId.containsKey(id)) {
+                    throw new IllegalArgumentException("Unknown tag id " + id);
+                }
+            }
+        }
+
+        Map<String, TagEntity> byName = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (TagEntity tagEntity : tagRepository.findByNameIn(names)) {
+                byName.putIfAbsent(tagEntity.getName(), tagEntity);
+            }
+            List<TagEntity> created = new ArrayList<>();
+            for (String name : names) {
+                if (!byName.containsKey(name)) {
+                    TagEntity tagEntity = new TagEntity();
+                    tagEntity.setName(name);
+                    created.add(tagEntity);
+                    byName.put(name, tagEntity);
+                }
+            }
+            // Ids come from the pooled sequence, so the inserts go out as one JDBC batch at flush
+            tagRepository.saveAll(created);
+        }
+        return new ResolvedTags(byId, byName);
+    }
+
+    private static List<String> toPhotoUrls(List<Media> media) {
+        List<String> photoUrls = new ArrayList<>(media.size());
+        for (int i = 0; i < media.size(); i++) {
+            photoUrls.add(media.get(i).getUrl());
+        }
+        return photoUrls;
+    }
+
+    private static List<Tag> toTags(List<TagEntity> tagEntities) {
+        List<Tag> tags = new ArrayList<>(tagEntities.size());
+        for (int i = 0; i < tagEntities.size(); i++) {
+            TagEntity tagEntity = tagEntities.get(i);
+            tags.add(new Tag(tagEntity.getId(), tagEntity.getName()));
+        }
+        return tags;
+    }
+
+    private static List<TagEntity> toTagEntities(List<Tag> tags, ResolvedTags resolved) {
+        List<TagEntity> tagEntities = new ArrayList<>(tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            Tag tag = tags.get(i);
+            if (tag.getId() != null) {
+                tagEntities.add(resolved.byId().get(tag.getId()));
+            } else if (tag.getName() != null) {
+                tagEntities.add(resolved.byName().get(tag.getName()));
+            }
+        }
+        return tagEntities;
     }
 }
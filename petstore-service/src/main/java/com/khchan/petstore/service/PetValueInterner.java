@@ -0,0 +1,51 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.dto.Tag;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shares one {@link Category} and one {@link Tag} instance per id among the pets of one mapped page.
+ * The catalog has a handful of categories and a few hundred tags, so a large page otherwise repeats
+ * the same small objects thousands of times.
+ *
+ * <p>Sharing is limited to a {@link Scope}, which lives only while one page or chunk is mapped. No
+ * instance reaches another request, a renamed category or tag shows up on the next read, and there is
+ * nothing to bound or evict: a scope is garbage together with the page it built.
+ */
+@Component
+class PetValueInterner {
+
+    /**
+     * Starts the scope for mapping one page. Scopes are not thread-safe.
+     */
+    Scope scope() {
+        return new Scope();
+    }
+
+    static final class Scope {
+
+        private final Map<Long, Category> categories = new HashMap<>();
+        private final Map<Long, Tag> tags = new HashMap<>();
+
+        private Scope() {
+        }
+
+        Category category(Long id, String name) {
+            if (id == null) {
+                return new Category(null, name);
+            }
+            return categories.computeIfAbsent(id, key -> new Category(key, name));
+        }
+
+        Tag tag(Long id, String name) {
+            if (id == null) {
+                return new Tag(null, name);
+            }
+            return tags.computeIfAbsent(id, key -> new Tag(key, name));
+        }
+    }
+}
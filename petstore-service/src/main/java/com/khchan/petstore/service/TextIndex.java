@@ -0,0 +1,216 @@
+package com.khchan.petstore.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from name and tag terms to pet ids. Terms are kept sorted, so prefix matches are a
+ * range scan and typo candidates are limited to terms sharing the first letter.
+ *
+ * <p>Every query term must match a pet, exactly, as a prefix or within a small edit distance. Matches
+ * in the name outrank matches in a tag, and exact matches outrank prefix and fuzzy ones.
+ *
+ * <p>Not thread-safe; {@link PetTextSearch} guards it with a read/write lock.
+ */
+final class TextIndex {
+
+    static final int NAME_WEIGHT = 2;
+    static final int TAG_WEIGHT = 1;
+    // Bounds the work a one- or two-letter prefix can cause on a large vocabulary
+    static final int MAX_PREFIX_EXPANSIONS = 200;
+
+    private static final float EXACT = 3f;
+    private static final float PREFIX = 2f;
+    private static final float FUZZY = 1f;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    record Hit(long petId, String name, float score) {
+    }
+
+    private record Document(String name, Map<String, Integer> terms) {
+    }
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    /**
+     * Indexes a pet, replacing whatever was indexed for it before.
+     */
+    void put(long petId, String name, Collection<String> tagNames) {
+        remove(petId);
+        Map<String, Integer> terms = new HashMap<>();
+        for (String tagName : tagNames) {
+            for (String term : tokenize(tagName)) {
+                terms.merge(term, TAG_WEIGHT, Math::max);
+            }
+        }
+        for (String term : tokenize(name)) {
+            terms.merge(term, NAME_WEIGHT, Math::max);
+        }
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(petId, weight));
+        documents.put(petId, new Document(name, terms));
+    }
+
+    void remove(long petId) {
+        Document document = documents.remove(petId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms().keySet()) {
+            Map<Long, Integer> pets = postings.get(term);
+            pets.remove(petId);
+            if (pets.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Best {@code limit} pets matching every term of {@code query}, highest score first and lowest id
+     * first among equal scores.
+     */
+    List<Hit> search(String query, int limit) {
+        Map<Long, Float> scores = null;
+        for (String term : tokenize(query)) {
+            Map<Long, Float> termScores = match(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Long, Float> both = new HashMap<>();
+                for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                    Float score = termScores.get(entry.getKey());
+                    if (score != null) {
+                        both.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparingLong(Hit::petId);
+        PriorityQueue<Hit> top = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            top.add(new Hit(entry.getKey(), documents.get(entry.getKey()).name(), entry.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    /**
+     * Best score of each pet for one query term: the strongest of its exact, prefix and fuzzy matches.
+     */
+    private Map<Long, Float> match(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> entry
+            : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            if (!entry.getKey().equals(term) && ++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            // Shorter completions are closer to what was typed
+            float strength = entry.getKey().equals(term)
+                ? EXACT
+                : PREFIX * term.length() / entry.getKey().length();
+            addScores(scores, entry.getValue(), strength);
+        }
+
+        int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            String first = term.substring(0, 1);
+            for (Map.Entry<String, Map<Long, Integer>> entry
+                : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String candidate = entry.getKey();
+                if (candidate.startsWith(term) || Math.abs(candidate.length() - term.length()) > maxEdits) {
+                    continue;
+                }
+                int edits = editDistance(term, candidate, maxEdits);
+                if (edits <= maxEdits) {
+                    addScores(scores, entry.getValue(), FUZZY / edits);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<Long, Float> scores, Map<Long, Integer> pets, float strength) {
+        pets.forEach((petId, weight) -> scores.merge(petId, strength * weight, Math::max));
+    }
+
+    /**
+     * Lower-cased, accent-free words of {@code text}.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions). Stops as soon as
+     * every alignment exceeds {@code max}, so any result above {@code max} only means "too far".
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previous2[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
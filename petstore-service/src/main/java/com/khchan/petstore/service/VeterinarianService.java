@@ -2,24 +2,39 @@ package com.khchan.petstore.service;
 
 import com.khchan.petstore.domain.Clinic;
 import com.khchan.petstore.domain.Veterinarian;
+import com.khchan.petstore.dto.ScheduledAppointment;
+import com.khchan.petstore.repository.AppointmentRepository;
 import com.khchan.petstore.repository.ClinicRepository;
 import com.khchan.petstore.repository.VeterinarianRepository;
+import com.khchan.petstore.repository.VeterinarianScheduleView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class VeterinarianService {
 
+    /**
+     * Widest window one schedule request may cover. Clinics page through a week or so at a time;
+     * the cap keeps a single response bounded however many appointments a veterinarian has.
+     */
+    static final Duration MAX_SCHEDULE_WINDOW = Duration.ofDays(31);
+
     private final VeterinarianRepository veterinarianRepository;
     private final ClinicRepository clinicRepository;
+    private final AppointmentRepository appointmentRepository;
 
     @Autowired
-    public VeterinarianService(VeterinarianRepository veterinarianRepository, ClinicRepository clinicRepository) {
+    public VeterinarianService(VeterinarianRepository veterinarianRepository, ClinicRepository clinicRepository,
+                               AppointmentRepository appointmentRepository) {
         this.veterinarianRepository = veterinarianRepository;
         this.clinicRepository = clinicRepository;
+        this.appointmentRepository = appointmentRepository;
     }
 
     @Transactional
@@ -38,6 +53,33 @@ public class VeterinarianService {
             .orElseThrow(() -> new IllegalArgumentException("Veterinarian not found: " + veterinarianId));
     }
 
+    /**
+     * Appointments of a veterinarian from {@code from} (inclusive) to {@code to} (exclusive), in time order,
+     * with each pet's name and status. Reads the schedule in one indexed range query after checking that
+     * the veterinarian exists.
+     *
+     * @return the schedule, or empty if there is no such veterinarian
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<ScheduledAppointment>> findSchedule(Long veterinarianId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Schedule range requires both from and to");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Schedule range must end after it starts");
+        }
+        if (Duration.between(from, to).compareTo(MAX_SCHEDULE_WINDOW) > 0) {
+            throw new IllegalArgumentException("Schedule range cannot exceed " + MAX_SCHEDULE_WINDOW.toDays() + " days");
+        }
+        if (!veterinarianRepository.existsById(veterinarianId)) {
+            return Optional.empty();
+        }
+        return Optional.of(appointmentRepository.findScheduleByVeterinarianId(veterinarianId, from, to)
+            .stream()
+            .map(VeterinarianService::toScheduledAppointment)
+            .toList());
+    }
+
     @Transactional(readOnly = true)
     public List<Veterinarian> findVeterinariansBySpecialty(String specialty) {
         requireNonBlank(specialty, "Specialty is required");
@@ -77,6 +119,18 @@ public class VeterinarianService {
         veterinarianRepository.delete(vet);
     }
 
+    private static ScheduledAppointment toScheduledAppointment(VeterinarianScheduleView view) {
+        return ScheduledAppointment.builder()
+            .id(view.getId())
+            .dateTime(view.getDateTime())
+            .reason(view.getReason())
+            .status(view.getStatus())
+            .petId(view.getPetId())
+            .petName(view.getPetName())
+            .petStatus(view.getPetStatus())
+            .build();
+    }
+
     private void requireNonBlank(String value, String message) {
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException(message);
@@ -0,0 +1,128 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Address;
+import com.khchan.petstore.domain.Appointment;
+import com.khchan.petstore.domain.AppointmentStatus;
+import com.khchan.petstore.domain.Breed;
+import com.khchan.petstore.domain.InsuranceStatus;
+import com.khchan.petstore.domain.Owner;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.PetInsurance;
+import com.khchan.petstore.domain.Size;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.Vaccination;
+import com.khchan.petstore.domain.Veterinarian;
+import com.khchan.petstore.dto.OwnerPetSummary;
+import com.khchan.petstore.dto.OwnerSummary;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(DataSourceProxyConfig.class)
+@Transactional
+public class OwnerSummaryTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+        .printQueriesOnFailure(true);
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void loadsOwnerSummaryInFourQueriesRegardlessOfPetCount() {
+        Owner owner = new Owner("Dana", "Reyes", "dana.summary@example.com", "555-3030",
+            new Address("4 Elm", "Boston", "MA", "02110", "USA"));
+        Breed breed = new Breed("Whippet", "Fast and quiet", Size.MEDIUM);
+        Veterinarian vet = new Veterinarian("Lee", "Ortiz", "General Practice", "VET-SUMMARY-1");
+        entityManager.persist(owner);
+        entityManager.persist(breed);
+        entityManager.persist(vet);
+
+        PetEntity insured = pet(owner, "Comet", breed);
+        insured.setInsurance(new PetInsurance("POL-SUMMARY-1", "PetHealth", new BigDecimal("1000.00"),
+            new BigDecimal("10.00"), LocalDate.of(2024, 1, 1), LocalDate.of(2026, 1, 1), InsuranceStatus.ACTIVE));
+        // The 2024 rabies dose was superseded by the 2025 booster; only the booster's due date counts
+        insured.addVaccination(new Vaccination(insured, "Rabies", LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1), vet));
+        insured.addVaccination(new Vaccination(insured, "Rabies", LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1), vet));
+        insured.addVaccination(new Vaccination(insured, "DHPP", LocalDate.of(2025, 3, 1), LocalDate.of(2026, 3, 1), vet));
+        insured.addAppointment(new Appointment(insured, vet, LocalDateTime.of(2025, 5, 1, 9, 0), "Checkup",
+            AppointmentStatus.COMPLETED));
+        insured.addAppointment(new Appointment(insured, vet, LocalDateTime.of(2025, 9, 1, 9, 0), "Dental",
+            AppointmentStatus.SCHEDULED));
+        // Upcoming bookings are not the latest visit
+        insured.addAppointment(new Appointment(insured, vet, LocalDateTime.now().plusDays(30), "Booster",
+            AppointmentStatus.SCHEDULED));
+        for (int i = 0; i < 5; i++) {
+            pet(owner, "Pup " + i, null);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        tracking.resetQueryCounters();
+
+        OwnerSummary summary = ownerService.findOwnerSummary(owner.getId()).orElseThrow();
+
+        tracking.assertSelectCount(4);
+        assertEquals("Dana", summary.getFirstName());
+        assertEquals(6, summary.getPets().size());
+
+        OwnerPetSummary comet = summary.getPets().get(0);
+        assertEquals("Comet", comet.getName());
+        assertEquals("Whippet", comet.getBreedName());
+        assertEquals(InsuranceStatus.ACTIVE, comet.getInsuranceStatus());
+        assertEquals(LocalDate.of(2026, 1, 1), comet.getNextVaccinationDue());
+        assertEquals("Dental", comet.getLatestAppointment().getReason());
+        assertEquals("Lee Ortiz", comet.getLatestAppointment().getVeterinarianName());
+
+        OwnerPetSummary pup = summary.getPets().get(1);
+        assertNull(pup.getBreedName());
+        assertNull(pup.getInsuranceStatus());
+        assertNull(pup.getNextVaccinationDue());
+        assertNull(pup.getLatestAppointment());
+    }
+
+    @Test
+    public void ownerWithoutPetsNeedsNoPetQueries() {
+        Owner owner = new Owner("Sam", "Hale", "sam.summary@example.com", "555-3031", null);
+        entityManager.persist(owner);
+        entityManager.flush();
+        entityManager.clear();
+        tracking.resetQueryCounters();
+
+        OwnerSummary summary = ownerService.findOwnerSummary(owner.getId()).orElseThrow();
+
+        assertTrue(summary.getPets().isEmpty());
+        tracking.assertSelectCount(2);
+    }
+
+    @Test
+    public void unknownOwnerIsEmpty() {
+        assertTrue(ownerService.findOwnerSummary(-1L).isEmpty());
+    }
+
+    private PetEntity pet(Owner owner, String name, Breed breed) {
+        PetEntity pet = new PetEntity();
+        pet.setName(name);
+        pet.setStatus(Status.AVAILABLE);
+        pet.setBreed(breed);
+        owner.addPet(pet);
+        entityManager.persist(pet);
+        return pet;
+    }
+}
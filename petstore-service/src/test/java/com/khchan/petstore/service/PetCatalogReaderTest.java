@@ -0,0 +1,144 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.Media;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.TagEntity;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.dto.Tag;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(DataSourceProxyConfig.class)
+@Transactional
+public class PetCatalogReaderTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+            .printQueriesOnFailure(true);
+
+    @Autowired
+    private PetCatalogReader catalogReader;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<PetEntity> pets = new ArrayList<>();
+    private TagEntity calm;
+    private TagEntity playful;
+    private String beforeFirstPet;
+
+    // Other tests delete seed pets, so this class brings its own and rolls them back
+    @BeforeEach
+    public void createPets() {
+        Category category = new Category(null, "Catalog reader");
+        calm = TagEntity.builder().name("catalog reader calm").build();
+        playful = TagEntity.builder().name("catalog reader playful").build();
+        entityManager.persist(category);
+        entityManager.persist(calm);
+        entityManager.persist(playful);
+        for (int i = 0; i < 3; i++) {
+            Media front = Media.builder().name("front " + i).url("http://img/catalog-" + i + "-front").build();
+            Media side = Media.builder().name("side " + i).url("http://img/catalog-" + i + "-side").build();
+            entityManager.persist(front);
+            entityManager.persist(side);
+            PetEntity pet = PetEntity.builder()
+                .name("Catalog " + i)
+                .status(Status.AVAILABLE)
+                .category(i == 2 ? null : category)
+                .tags(new ArrayList<>(i == 2 ? List.of() : List.of(playful, calm)))
+                .media(new ArrayList<>(i == 2 ? List.of() : List.of(side, front)))
+                .build();
+            entityManager.persist(pet);
+            pets.add(pet);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        beforeFirstPet = PetCursor.encode(pets.get(0).getId() - 1);
+    }
+
+    @Test
+    public void readsPageWithOneStatement() {
+        List<PetCatalogReader.Row> rows = new ArrayList<>();
+        tracking.resetQueryCounters();
+
+        PetCatalogReader.Page page = catalogReader.readPage(beforeFirstPet, 3, rows::add);
+
+        tracking.assertSelectCount(1);
+        assertEquals(pets.stream().map(PetEntity::getId).toList(), rows.stream().map(PetCatalogReader.Row::id).toList());
+        PetCatalogReader.Row first = rows.get(0);
+        assertEquals("Catalog 0", first.name());
+        assertEquals(pets.get(0).getCategory().getId(), first.categoryId());
+        // in media and tag id order, not the order they were attached in
+        assertEquals(photoUrlsJson(List.of("http://img/catalog-0-front", "http://img/catalog-0-side")),
+            first.photoUrlsJson());
+        assertEquals(tagsJson(List.of(new Tag(calm.getId(), calm.getName()), new Tag(playful.getId(), playful.getName()))),
+            first.tagsJson());
+        PetCatalogReader.Row bare = rows.get(2);
+        assertNull(bare.categoryId());
+        assertNull(bare.photoUrlsJson());
+        assertNull(bare.tagsJson());
+        assertNotNull(page.fingerprint());
+    }
+
+    @Test
+    public void matchesEntityPage() {
+        PetPage expected = petService.findPets(beforeFirstPet, 2, PetField.ALL);
+        List<PetCatalogReader.Row> rows = new ArrayList<>();
+
+        PetCatalogReader.Page page = catalogReader.readPage(beforeFirstPet, 2, rows::add);
+
+        assertEquals(2, rows.size());
+        assertEquals(expected.getItems().size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Pet pet = expected.getItems().get(i);
+            PetCatalogReader.Row row = rows.get(i);
+            assertEquals(pet.getId(), Long.valueOf(row.id()));
+            assertEquals(pet.getVersion(), row.version());
+            assertEquals(pet.getName(), row.name());
+            assertEquals(pet.getStatus(), row.status());
+            assertEquals(pet.getCategory() == null ? null : pet.getCategory().getName(), row.categoryName());
+            assertEquals(tagsJson(pet.getTags()), row.tagsJson());
+            assertEquals(photoUrlsJson(pet.getPhotoUrls()), row.photoUrlsJson());
+        }
+        assertEquals(expected.getNextCursor(), page.nextCursor());
+        assertEquals(petService.fingerprint(expected), page.fingerprint());
+    }
+
+    @Test
+    public void rejectsInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> catalogReader.readPage("not-a-cursor", null, row -> { }));
+    }
+
+    // The reader renders tags and photo urls as JSON arrays, or null when a pet has none
+    private static String tagsJson(List<Tag> tags) {
+        return tags.isEmpty() ? null : tags.stream()
+            .map(tag -> "{\"id\":" + tag.getId() + ",\"name\":\"" + tag.getName() + "\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String photoUrlsJson(List<String> photoUrls) {
+        return photoUrls.isEmpty() ? null : photoUrls.stream()
+            .collect(Collectors.joining("\",\"", "[\"", "\"]"));
+    }
+}
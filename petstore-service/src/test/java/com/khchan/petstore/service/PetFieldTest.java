@@ -0,0 +1,28 @@
+package com.khchan.petstore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetFieldTest {
+
+    @Test
+    public void parseAlwaysIncludesIdAndVersion() {
+        assertEquals(EnumSet.of(PetField.ID, PetField.NAME, PetField.VERSION), PetField.parse(" name ,"));
+        assertSame(PetField.ALL, PetField.parse(null));
+        assertSame(PetField.ALL, PetField.parse(""));
+    }
+
+    @Test
+    public void parseRejectsUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> PetField.parse("name,owner"));
+    }
+
+    @Test
+    public void keyIsIndependentOfRequestOrder() {
+        assertEquals(PetField.key(PetField.parse("tags,name")), PetField.key(PetField.parse("name,tags")));
+        assertEquals("id.name.tags.version", PetField.key(PetField.parse("tags,name")));
+    }
+}
@@ -0,0 +1,184 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Appointment;
+import com.khchan.petstore.domain.AppointmentStatus;
+import com.khchan.petstore.domain.InsuranceStatus;
+import com.khchan.petstore.domain.MedicalRecord;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.PetInsurance;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.Vaccination;
+import com.khchan.petstore.domain.Veterinarian;
+import com.khchan.petstore.dto.MedicalRecordSummary;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetProfile;
+import com.khchan.petstore.dto.VaccinationSummary;
+import com.khchan.petstore.repository.AppointmentRepository;
+import com.khchan.petstore.repository.MedicalRecordRepository;
+import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.VaccinationRepository;
+import com.khchan.petstore.repository.VeterinarianRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+public class PetProfileServiceTest {
+
+    @Autowired
+    private PetProfileService profileService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private VeterinarianRepository veterinarianRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private VaccinationRepository vaccinationRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private final PetService petService = mock(PetService.class);
+    private final MedicalRecordService medicalRecordService = mock(MedicalRecordService.class);
+    private final VaccinationService vaccinationService = mock(VaccinationService.class);
+    private final AppointmentService appointmentService = mock(AppointmentService.class);
+    private final PetInsuranceService petInsuranceService = mock(PetInsuranceService.class);
+    private ThreadPoolTaskExecutor executor;
+
+    private Veterinarian vet;
+    private PetEntity insured;
+    private PetEntity uninsured;
+    private MedicalRecord checkup;
+    private Appointment appointment;
+
+    // Other tests delete seed pets, so this class brings its own
+    @BeforeEach
+    public void createPets() {
+        vet = veterinarianRepository.save(new Veterinarian("Emily", "Brown", "General", "VET-PROFILE-TEST"));
+        PetInsurance insurance = new PetInsurance("POL-PROFILE-TEST", "PetCare", new BigDecimal("5000.00"),
+            new BigDecimal("25.00"), LocalDate.now().minusMonths(1), LocalDate.now().plusYears(1), InsuranceStatus.ACTIVE);
+        insured = petRepository.save(PetEntity.builder().name("Fluffy").status(Status.AVAILABLE)
+            .insurance(insurance).build());
+        uninsured = petRepository.save(PetEntity.builder().name("Spot").status(Status.AVAILABLE).build());
+        checkup = medicalRecordRepository.save(new MedicalRecord(insured, vet, LocalDate.now().minusDays(10),
+            "Annual checkup", "None"));
+        vaccinationRepository.saveAll(List.of(
+            new Vaccination(insured, "Rabies", LocalDate.now().minusDays(10), LocalDate.now().plusYears(1), vet),
+            new Vaccination(insured, "FVRCP", LocalDate.now().minusDays(10), LocalDate.now().plusYears(1), vet)));
+        appointment = appointmentRepository.save(new Appointment(insured, vet, LocalDateTime.now().plusDays(7),
+            "Follow-up", AppointmentStatus.SCHEDULED));
+    }
+
+    @AfterEach
+    public void shutDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        appointmentRepository.delete(appointment);
+        vaccinationRepository.deleteAll(vaccinationRepository.findByPetId(insured.getId()));
+        medicalRecordRepository.delete(checkup);
+        petRepository.deleteAllById(List.of(insured.getId(), uninsured.getId()));
+        veterinarianRepository.delete(vet);
+    }
+
+    @Test
+    public void loadsPetWithItsWholeCareHistory() {
+        PetProfile profile = profileService.findProfile(insured.getId()).orElseThrow();
+
+        assertEquals("Fluffy", profile.getPet().getName());
+        MedicalRecordSummary summary = profile.getMedicalRecords().stream()
+            .filter(record -> record.getId().equals(checkup.getId()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("Annual checkup", summary.getDiagnosis());
+        assertEquals("Emily Brown", summary.getVeterinarianName());
+        assertTrue(profile.getVaccinations().stream().map(VaccinationSummary::getVaccineName).toList()
+            .containsAll(List.of("Rabies", "FVRCP")));
+        assertTrue(profile.getAppointments().stream()
+            .anyMatch(booked -> booked.getId().equals(appointment.getId())));
+        assertEquals("POL-PROFILE-TEST", profile.getInsurance().getPolicyNumber());
+    }
+
+    @Test
+    public void uninsuredPetHasNoInsurance() {
+        PetProfile profile = profileService.findProfile(uninsured.getId()).orElseThrow();
+
+        assertEquals("Spot", profile.getPet().getName());
+        assertNull(profile.getInsurance());
+    }
+
+    @Test
+    public void unknownPetIsEmpty() {
+        assertTrue(profileService.findProfile(-1L).isEmpty());
+    }
+
+    @Test
+    public void slowReadFailsAtTheDeadlineAndIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doReturn(Pet.builder().id(1L).name("Slow").status(Status.AVAILABLE).build()).when(petService).findPet(1L);
+        doAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return List.of();
+        }).when(medicalRecordService).findRecordsForPet(1L);
+        doThrow(new IllegalArgumentException("Insurance not found for pet: 1"))
+            .when(petInsuranceService).findInsuranceForPet(1L);
+
+        long startedAt = System.nanoTime();
+        assertThrows(QueryTimeoutException.class, () -> mockedProfileService(Duration.ofMillis(200)).findProfile(1L));
+
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedReadIsRethrown() {
+        doReturn(Pet.builder().id(1L).name("Broken").status(Status.AVAILABLE).build()).when(petService).findPet(1L);
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+            .when(vaccinationService).findVaccinationsForPet(1L);
+
+        assertThrows(DataAccessResourceFailureException.class,
+            () -> mockedProfileService(Duration.ofSeconds(5)).findProfile(1L));
+    }
+
+    private PetProfileService mockedProfileService(Duration timeout) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(5);
+        executor.initialize();
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        doReturn(new SimpleTransactionStatus()).when(transactionManager).getTransaction(any());
+        return new PetProfileService(petService, medicalRecordService, vaccinationService, appointmentService,
+            petInsuranceService, transactionManager, executor, timeout);
+    }
+}
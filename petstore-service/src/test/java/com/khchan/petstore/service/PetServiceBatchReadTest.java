@@ -0,0 +1,106 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.Media;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.TagEntity;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(DataSourceProxyConfig.class)
+@Transactional
+public class PetServiceBatchReadTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+            .printQueriesOnFailure(true);
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Other tests delete seed pets, so this class brings its own and rolls them back
+    @BeforeEach
+    public void createPets() {
+        Category category = new Category(null, "Batch read");
+        TagEntity tag = TagEntity.builder().name("batch read").build();
+        entityManager.persist(category);
+        entityManager.persist(tag);
+        for (int i = 0; i < 3; i++) {
+            Media photo = Media.builder().name("photo " + i).url("http://img/batch-" + i).build();
+            entityManager.persist(photo);
+            entityManager.persist(PetEntity.builder()
+                .name("Batch " + i)
+                .status(Status.AVAILABLE)
+                .category(category)
+                .tags(new ArrayList<>(List.of(tag)))
+                .media(new ArrayList<>(List.of(photo)))
+                .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        tracking.resetQueryCounters();
+    }
+
+    @Test
+    public void findAllPetsLoadsCollectionsOncePerAssociation() {
+        List<Pet> pets = petService.findAllPets();
+
+        assertTrue(pets.size() >= 3);
+        for (Pet pet : pets) {
+            assertNotNull(pet.getTags());
+            assertNotNull(pet.getPhotoUrls());
+        }
+        // pets with category, tags for all of them, photo urls for all of them
+        tracking.assertSelectCount(3);
+    }
+
+    @Test
+    public void pageSizeDoesNotChangeQueryCount() {
+        PetPage small = petService.findPets(null, 1, PetField.ALL);
+        tracking.assertSelectCount(3);
+        tracking.resetQueryCounters();
+
+        PetPage large = petService.findPets(null, PetService.MAX_PAGE_SIZE, PetField.ALL);
+        tracking.assertSelectCount(3);
+
+        assertEquals(1, small.getItems().size());
+        assertTrue(large.getItems().size() >= 3);
+        assertEquals(small.getItems().get(0).getId(), large.getItems().get(0).getId());
+    }
+
+    @Test
+    public void streamPetsMatchesFindAllPets() {
+        List<Pet> streamed = new ArrayList<>();
+        petService.streamPets(streamed::add);
+        tracking.assertSelectCount(3);
+
+        List<Pet> all = petService.findAllPets();
+        assertEquals(all.size(), streamed.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(all.get(i).getId(), streamed.get(i).getId());
+            assertEquals(all.get(i).getCategory(), streamed.get(i).getCategory());
+            assertEquals(all.get(i).getTags(), streamed.get(i).getTags());
+            assertEquals(all.get(i).getPhotoUrls(), streamed.get(i).getPhotoUrls());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that bulk pet writes reach the database as JDBC batches rather than one INSERT per row.
+ * Batching is switched on here the same way petstore-web configures it.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true"
+})
+@Import(DataSourceProxyConfig.class)
+public class PetServiceBatchWriteTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+            .printQueriesOnFailure(true);
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Test
+    public void savePetsSendsOneBatchPerChunk() {
+        List<Pet> pets = IntStream.range(0, 120)
+            .mapToObj(i -> Pet.builder().name("Batch pet " + i).status(Status.AVAILABLE).build())
+            .toList();
+
+        List<Pet> saved = petService.savePets(pets);
+
+        assertEquals(120, saved.size());
+        assertTrue(saved.stream().allMatch(pet -> pet.getId() != null && pet.getVersion() != null));
+        // 120 pets in chunks of 50 -> three batched INSERT executions instead of 120
+        tracking.assertInsertCount(3);
+        tracking.assertCommitCount(1);
+
+        petRepository.deleteAllById(saved.stream().map(Pet::getId).toList());
+    }
+
+    @Test
+    public void savePetsUpdatesExistingPetsWithoutVersion() {
+        List<Pet> created = petService.savePets(IntStream.range(0, 3)
+            .mapToObj(i -> Pet.builder().name("Before " + i).status(Status.AVAILABLE).build())
+            .toList());
+        try {
+            List<Pet> updates = created.stream()
+                .map(pet -> Pet.builder().id(pet.getId()).name("After").status(Status.SOLD).build())
+                .toList();
+            tracking.resetQueryCounters();
+
+            List<Pet> updated = petService.savePets(updates);
+
+            // the pets with their tags, then their photo urls: no lookup or lazy load per pet
+            tracking.assertSelectCount(2);
+            tracking.assertUpdateCount(1);
+            for (int i = 0; i < created.size(); i++) {
+                assertEquals("After", updated.get(i).getName());
+                assertEquals(Status.SOLD, updated.get(i).getStatus());
+                assertEquals(Long.valueOf(created.get(i).getVersion() + 1), updated.get(i).getVersion());
+                assertEquals(List.of(), updated.get(i).getPhotoUrls());
+            }
+        } finally {
+            petRepository.deleteAllById(created.stream().map(Pet::getId).toList());
+        }
+    }
+
+    @Test
+    public void savePetsRejectsStaleVersion() {
+        Pet created = petService.savePets(List.of(Pet.builder().name("Before").status(Status.AVAILABLE).build())).get(0);
+        try {
+            Pet stale = Pet.builder().id(created.getId()).name("After").status(Status.SOLD)
+                .version(created.getVersion() + 1).build();
+
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> petService.savePets(List.of(stale)));
+            assertEquals("Before", petRepository.findById(created.getId()).orElseThrow().getName());
+        } finally {
+            petRepository.deleteById(created.getId());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.dto.PetLookupResult;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(DataSourceProxyConfig.class)
+public class PetServiceMultiGetTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+            .printQueriesOnFailure(true);
+
+    @Autowired
+    private PetService petService;
+
+    @Test
+    public void resolvesIdsInRequestOrderWithMissingMarkers() {
+        List<Long> ids = petService.findPets(null, 3, PetField.parse("name")).getItems().stream()
+            .map(pet -> pet.getId())
+            .toList();
+        assertEquals(3, ids.size());
+        tracking.resetQueryCounters();
+
+        List<PetLookupResult> results = petService.findPetsByIds(List.of(ids.get(2), -1L, ids.get(0), ids.get(1)));
+
+        assertEquals(List.of(ids.get(2), -1L, ids.get(0), ids.get(1)),
+            results.stream().map(PetLookupResult::getId).toList());
+        assertFalse(results.get(1).isFound());
+        assertNull(results.get(1).getPet());
+        assertTrue(results.get(0).isFound());
+        assertEquals(ids.get(2), results.get(0).getPet().getId());
+        assertNotNull(results.get(0).getPet().getName());
+        assertNotNull(results.get(0).getPet().getTags());
+        // pets with category, tags for all of them, photo urls for all of them
+        tracking.assertSelectCount(3);
+    }
+}
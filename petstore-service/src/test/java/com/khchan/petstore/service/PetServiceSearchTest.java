@@ -0,0 +1,139 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.Owner;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.TagEntity;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.dto.PetSearchFilter;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(DataSourceProxyConfig.class)
+@Transactional
+public class PetServiceSearchTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+        .printQueriesOnFailure(true);
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Owner owner;
+
+    @BeforeEach
+    void createPets() {
+        owner = new Owner("Robin", "Vale", "robin.search@example.com", "555-4040", null);
+        entityManager.persist(owner);
+        // Seed data: categories 1 (Cats) and 2 (Dogs), tag 2 is 'good with kids'
+        Category cats = entityManager.find(Category.class, 1L);
+        Category dogs = entityManager.find(Category.class, 2L);
+        TagEntity goodWithKids = entityManager.find(TagEntity.class, 2L);
+
+        pet("Rex", Status.AVAILABLE, dogs, goodWithKids);
+        pet("Ace", Status.AVAILABLE, dogs, null);
+        pet("Mo", Status.SOLD, dogs, goodWithKids);
+        pet("Bo", Status.AVAILABLE, cats, goodWithKids);
+        pet("Zed", Status.AVAILABLE, dogs, goodWithKids);
+        pet(null, Status.PENDING, cats, null);
+        pet("", Status.PENDING, cats, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void combinesFiltersInThreeQueries() {
+        PetSearchFilter filter = PetSearchFilter.builder()
+            .ownerId(owner.getId())
+            .status(Status.AVAILABLE)
+            .categoryId(2L)
+            .tag("good with kids")
+            .build();
+        tracking.resetQueryCounters();
+
+        PetPage page = petService.searchPets(filter, "name", null, null);
+
+        // pets with category, tags for the page, photo urls for the page
+        tracking.assertSelectCount(3);
+        assertEquals(List.of("Rex", "Zed"), names(page.getItems()));
+        assertEquals("Dogs", page.getItems().get(0).getCategory().getName());
+        assertEquals("good with kids", page.getItems().get(0).getTags().get(0).getName());
+        assertNull(page.getNextCursor());
+        // ordered by the raw column, which the (name, id) index can serve
+        String pageQuery = tracking.getSelectQueries().get(0).toLowerCase();
+        assertFalse(pageQuery.contains("coalesce"), pageQuery);
+        assertTrue(pageQuery.matches("(?s).*order by \\w+\\.name,\\s*\\w+\\.id.*"), pageQuery);
+    }
+
+    @Test
+    public void pagesThroughEveryOrderingWithoutGapsOrRepeats() {
+        PetSearchFilter filter = PetSearchFilter.builder().ownerId(owner.getId()).build();
+
+        assertEquals(Arrays.asList(null, "", "Ace", "Bo", "Mo", "Rex", "Zed"), names(pageThrough(filter, "name")));
+        assertEquals(Arrays.asList("Zed", "Rex", "Mo", "Bo", "Ace", "", null), names(pageThrough(filter, "-name")));
+
+        List<Long> ids = pageThrough(filter, "id").stream().map(Pet::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        List<Long> descending = new ArrayList<>(pageThrough(filter, "-id").stream().map(Pet::getId).toList());
+        Collections.reverse(descending);
+        assertEquals(ids, descending);
+    }
+
+    @Test
+    public void rejectsCursorFromAnotherOrdering() {
+        PetSearchFilter filter = PetSearchFilter.builder().ownerId(owner.getId()).build();
+        String cursor = petService.searchPets(filter, "name", null, 2).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> petService.searchPets(filter, "id", cursor, 2));
+        assertThrows(IllegalArgumentException.class, () -> petService.searchPets(filter, "age", null, 2));
+    }
+
+    private List<Pet> pageThrough(PetSearchFilter filter, String sort) {
+        List<Pet> pets = new ArrayList<>();
+        String after = null;
+        do {
+            PetPage page = petService.searchPets(filter, sort, after, 2);
+            pets.addAll(page.getItems());
+            after = page.getNextCursor();
+        } while (after != null);
+        return pets;
+    }
+
+    private static List<String> names(List<Pet> pets) {
+        return pets.stream().map(Pet::getName).toList();
+    }
+
+    private void pet(String name, Status status, Category category, TagEntity tag) {
+        PetEntity pet = new PetEntity();
+        pet.setName(name);
+        pet.setStatus(status);
+        pet.setCategory(category);
+        if (tag != null) {
+            pet.getTags().add(tag);
+        }
+        owner.addPet(pet);
+        entityManager.persist(pet);
+    }
+}
@@ -0,0 +1,91 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sparse field sets must be served by projection queries, touching an association only when it
+ * was asked for.
+ */
+@SpringBootTest
+@Import(DataSourceProxyConfig.class)
+public class PetServiceSparseFieldsTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+            .printQueriesOnFailure(true);
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void scalarFieldsNeedOneSelect() {
+        PetPage page = petService.findPets(null, 5, PetField.parse("name,status"));
+
+        assertFalse(page.getItems().isEmpty());
+        for (Pet pet : page.getItems()) {
+            assertNotNull(pet.getId());
+            assertNotNull(pet.getName());
+            assertNull(pet.getCategory());
+            assertNull(pet.getTags());
+            assertNull(pet.getPhotoUrls());
+        }
+        tracking.assertSelectCount(1);
+    }
+
+    @Test
+    public void requestedAssociationsAddOneSelectEach() {
+        PetPage page = petService.findPets(null, 5, PetField.parse("category,tags,photoUrls"));
+
+        assertFalse(page.getItems().isEmpty());
+        for (Pet pet : page.getItems()) {
+            assertNull(pet.getName());
+            assertNotNull(pet.getTags());
+            assertNotNull(pet.getPhotoUrls());
+        }
+        // summary with category join, tags for the page, photo urls for the page
+        tracking.assertSelectCount(3);
+    }
+
+    @Test
+    @Transactional
+    public void singlePetIsReadThroughProjection() {
+        Category category = entityManager.merge(Category.builder().name("Birds").build());
+        PetEntity saved = petRepository.saveAndFlush(PetEntity.builder()
+            .name("Tweety")
+            .status(Status.AVAILABLE)
+            .category(category)
+            .build());
+        entityManager.clear();
+        tracking.resetQueryCounters();
+
+        Pet pet = petService.findPet(saved.getId(), PetField.parse("name,category"));
+
+        assertEquals("Tweety", pet.getName());
+        assertEquals("Birds", pet.getCategory().getName());
+        assertNull(pet.getStatus());
+        assertNull(pet.getTags());
+        tracking.assertSelectCount(1);
+    }
+}
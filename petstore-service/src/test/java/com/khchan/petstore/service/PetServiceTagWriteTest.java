@@ -0,0 +1,94 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.Tag;
+import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.TagRepository;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the tags of a pet write are resolved with a fixed number of queries, however many
+ * tags the pet has, and that new tags and join rows are inserted as JDBC batches.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true"
+})
+@Import(DataSourceProxyConfig.class)
+public class PetServiceTagWriteTest {
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+            .printQueriesOnFailure(true);
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Test
+    public void savePetWithManyNewTagsBatchesInserts() {
+        List<Tag> tags = IntStream.range(0, 20)
+            .mapToObj(i -> Tag.builder().name("tag-write-test " + i).build())
+            .toList();
+
+        Pet saved = petService.savePet(Pet.builder().name("Tagged").status(Status.AVAILABLE).tags(tags).build());
+        try {
+            assertEquals(20, saved.getTags().size());
+            assertTrue(saved.getTags().stream().allMatch(tag -> tag.getId() != null));
+            // the pet, all new tags, all join rows
+            tracking.assertInsertCount(3);
+            // tags by name plus id sequences, independent of the number of tags
+            tracking.assertSelectCountAtMost(3);
+        } finally {
+            petRepository.deleteById(saved.getId());
+            tagRepository.deleteAllById(saved.getTags().stream().map(Tag::getId).toList());
+        }
+    }
+
+    @Test
+    public void savePetReusesExistingTagsByIdAndName() {
+        List<Tag> tags = List.of(
+            Tag.builder().id(1L).name("renamed by client").build(),
+            Tag.builder().name("good with kids").build());
+
+        Pet saved = petService.savePet(Pet.builder().name("Reused").status(Status.AVAILABLE).tags(tags).build());
+        try {
+            assertEquals(List.of(1L, 2L), saved.getTags().stream().map(Tag::getId).toList());
+            assertEquals("good with other animals", saved.getTags().get(0).getName());
+            // the pet and its join rows, no new tags
+            tracking.assertInsertCount(2);
+        } finally {
+            petRepository.deleteById(saved.getId());
+        }
+    }
+
+    @Test
+    public void savePetRejectsUnknownTagId() {
+        Pet pet = Pet.builder()
+            .name("Orphan")
+            .status(Status.AVAILABLE)
+            .tags(List.of(Tag.builder().id(-1L).build()))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> petService.savePet(pet));
+        tracking.assertInsertCount(0);
+    }
+}
@@ -2,20 +2,37 @@ package com.khchan.petstore.service;
 
 import com.khchan.petstore.domain.Status;
 import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetPage;
 import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.repository.PetCategorySummaryView;
 import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.PetSummaryView;
+import com.khchan.petstore.repository.PetVersionView;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,14 +44,135 @@ public class PetServiceTest {
     @Mock
     private PetTransformer petTransformer;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private PetService fixture;
 
     @Test
     public void findAllPets() {
+        List<PetEntity> entities = List.of(PetEntity.builder().id(1L).build());
+        doReturn(entities).when(petRepository).findAllWithCategory();
+
         fixture.findAllPets();
 
-        verify(petRepository).findAll();
+        verify(petTransformer).transformEntitiesToDTOs(eq(entities));
+    }
+
+    @Test
+    public void findPetsReturnsCursorWhenMoreRowsExist() {
+        PetCategorySummaryView first = mock(PetCategorySummaryView.class);
+        PetCategorySummaryView second = mock(PetCategorySummaryView.class);
+        doReturn(1L).when(first).getId();
+        Pet pet = Pet.builder().id(1L).name("Fluffy").build();
+        doReturn(Arrays.asList(first, second)).when(petRepository)
+            .findCategorySummariesByIdGreaterThan(eq(0L), eq(Limit.of(2)));
+        doReturn(List.of(pet)).when(petTransformer).transformViewsToDTOs(eq(List.of(first)), eq(PetField.ALL));
+
+        PetPage page = fixture.findPets(null, 1, PetField.ALL);
+
+        assertEquals(List.of(pet), page.getItems());
+        assertNotNull(page.getNextCursor());
+        assertEquals(1L, PetCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    public void findPetsSeeksPastCursorAndEndsOnLastPage() {
+        doReturn(Collections.emptyList()).when(petRepository)
+            .findCategorySummariesByIdGreaterThan(eq(42L), eq(Limit.of(PetService.DEFAULT_PAGE_SIZE + 1)));
+
+        PetPage page = fixture.findPets(PetCursor.encode(42L), null, PetField.ALL);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void findPetsClampsPageSize() {
+        fixture.findPets(null, 10_000, PetField.ALL);
+
+        verify(petRepository).findCategorySummariesByIdGreaterThan(eq(0L), eq(Limit.of(PetService.MAX_PAGE_SIZE + 1)));
+    }
+
+    @Test
+    public void findPetsRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> fixture.findPets("not-a-cursor", null, PetField.ALL));
+        assertThrows(IllegalArgumentException.class, () -> fixture.findPets(null, 0, PetField.ALL));
+    }
+
+    @Test
+    public void findPetsWithoutCategoryReadsSummariesOnly() {
+        Set<PetField> fields = PetField.parse("name,tags");
+        PetSummaryView summary = mock(PetSummaryView.class);
+        Pet pet = Pet.builder().id(1L).name("Fluffy").build();
+        doReturn(List.of(summary)).when(petRepository)
+            .findSummariesByIdGreaterThan(eq(0L), eq(Limit.of(PetService.DEFAULT_PAGE_SIZE + 1)));
+        doReturn(List.of(pet)).when(petTransformer).transformViewsToDTOs(eq(List.of(summary)), eq(fields));
+
+        PetPage page = fixture.findPets(null, null, fields);
+
+        assertEquals(List.of(pet), page.getItems());
+        verify(petRepository, never()).findCategorySummariesByIdGreaterThan(any(), any());
+    }
+
+    @Test
+    public void findPetWithAllFieldsUsesEntity() {
+        doReturn(Optional.empty()).when(petRepository).findById(eq(1L));
+
+        assertNull(fixture.findPet(1L, PetField.ALL));
+
+        verify(petRepository, never()).findSummaryById(any());
+    }
+
+    @Test
+    public void findPetsByIdsRejectsTooManyIds() {
+        List<Long> ids = Collections.nCopies(PetService.MAX_MULTI_GET_SIZE + 1, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> fixture.findPetsByIds(ids));
+    }
+
+    @Test
+    public void pageFingerprintMatchesBuiltPage() {
+        PetVersionView first = versionView(1L, 0L);
+        PetVersionView second = versionView(2L, 5L);
+        doReturn(Arrays.asList(first, second)).when(petRepository)
+            .findVersionsByIdGreaterThan(eq(0L), eq(Limit.of(2)));
+        PetPage page = PetPage.builder()
+            .items(Collections.singletonList(Pet.builder().id(1L).version(0L).build()))
+            .nextCursor(PetCursor.encode(1L))
+            .build();
+
+        assertEquals(fixture.fingerprint(page), fixture.findPageFingerprint(null, 1));
+
+        page.getItems().get(0).setVersion(1L);
+        assertNotEquals(fixture.fingerprint(page), fixture.findPageFingerprint(null, 1));
+    }
+
+    @Test
+    public void streamPets() {
+        PetEntity first = PetEntity.builder().id(1L).name("Fluffy").build();
+        PetEntity second = PetEntity.builder().id(2L).name("Spot").build();
+        AtomicBoolean closed = new AtomicBoolean();
+        doReturn(Stream.of(first, second).onClose(() -> closed.set(true)))
+            .when(petRepository).streamAllOrderedById();
+        Pet firstDTO = mock(Pet.class);
+        Pet secondDTO = mock(Pet.class);
+        doReturn(Arrays.asList(firstDTO, secondDTO)).when(petTransformer)
+            .transformEntitiesToDTOs(eq(Arrays.asList(first, second)));
+
+        List<Pet> received = new ArrayList<>();
+        fixture.streamPets(received::add);
+
+        assertEquals(Arrays.asList(firstDTO, secondDTO), received);
+        assertTrue(closed.get());
+        verify(entityManager).clear();
     }
 
     @Test
@@ -56,15 +194,36 @@ public class PetServiceTest {
         PetEntity mockEntity = mock(PetEntity.class);
         PetEntity savedEntity = mock(PetEntity.class);
         doReturn(mockEntity).when(petTransformer).transformDTOToEntity(eq(newPetDTO));
-        doReturn(savedEntity).when(petRepository).save(eq(mockEntity));
+        doReturn(savedEntity).when(petRepository).saveAndFlush(eq(mockEntity));
         doReturn(mock(Pet.class)).when(petTransformer).transformEntityToDTO(eq(savedEntity));
 
         fixture.savePet(newPetDTO);
 
-        verify(petRepository).save(eq(mockEntity));
+        verify(petRepository).saveAndFlush(eq(mockEntity));
         verify(petTransformer).transformEntityToDTO(eq(savedEntity));
     }
 
+    @Test
+    public void savePetWithoutVersionUsesCurrentVersion() {
+        Pet petDTO = createPetDTO();
+        PetEntity entity = PetEntity.builder().id(1L).build();
+        doReturn(entity).when(petTransformer).transformDTOToEntity(eq(petDTO));
+        doReturn(Optional.of(7L)).when(petRepository).findVersionById(eq(1L));
+        doReturn(entity).when(petRepository).saveAndFlush(eq(entity));
+        doReturn(petDTO).when(petTransformer).transformEntityToDTO(eq(entity));
+
+        fixture.savePet(petDTO);
+
+        assertEquals(Long.valueOf(7L), entity.getVersion());
+    }
+
+    @Test
+    public void savePetsRejectsOversizedBatch() {
+        List<Pet> pets = Collections.nCopies(PetService.MAX_BATCH_SIZE + 1, createPetDTO());
+
+        assertThrows(IllegalArgumentException.class, () -> fixture.savePets(pets));
+    }
+
     @Test
     public void removePet() {
         Long petId = 1L;
@@ -72,6 +231,21 @@ public class PetServiceTest {
         fixture.removePet(petId);
 
         verify(petRepository).deleteById(eq(petId));
+        verify(eventPublisher).publishEvent(any(PetChangeEvent.class));
+    }
+
+    private PetVersionView versionView(Long id, Long version) {
+        return new PetVersionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
     }
 
     private Pet createPetDTO() {
@@ -0,0 +1,107 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Address;
+import com.khchan.petstore.domain.Owner;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.TagEntity;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetSuggestion;
+import com.khchan.petstore.repository.PetRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class PetTextSearchTest {
+
+    @Autowired
+    private PetTextSearch textSearch;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PetManagementService petManagementService;
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void rebuildPicksUpWritesThatPublishedNoEvent() {
+        PetEntity pet = new PetEntity();
+        pet.setName("Marzipan");
+        pet.setStatus(Status.AVAILABLE);
+        TagEntity tag = TagEntity.builder().name("sleepy lapdog").build();
+        pet.getTags().add(tag);
+        // Persisted directly, so no PetChangeEvent reaches the index
+        Long id = new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.persist(tag);
+            entityManager.persist(pet);
+            return pet.getId();
+        });
+        try {
+            assertTrue(textSearch.suggest("marzipan", null).isEmpty());
+
+            textSearch.rebuild();
+
+            assertEquals(List.of(id), ids(textSearch.suggest("marzi", null)));
+            assertEquals(List.of(id), ids(textSearch.suggest("sleepy lapdgo", null)));
+        } finally {
+            petRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void followsCommittedWrites() {
+        Pet saved = petService.savePet(Pet.builder().name("Quasimodo").status(Status.AVAILABLE).build());
+        try {
+            assertEquals(saved.getId(), textSearch.suggest("quasimoto", null).get(0).getId());
+        } finally {
+            petService.removePet(saved.getId());
+        }
+        assertTrue(textSearch.suggest("quasimodo", null).isEmpty());
+    }
+
+    @Test
+    public void dropsPetsDeletedThroughTheirOwner() {
+        Owner owner = ownerService.registerOwner("Ida", "Vance", "ida.text-search@example.com", "555-2020",
+            new Address("4 Main", "Boston", "MA", "02110", "USA"));
+        PetEntity pet = petManagementService.createPet("Pumpernickel", Status.AVAILABLE, null, owner.getId());
+        try {
+            assertEquals(List.of(pet.getId()), ids(textSearch.suggest("pumpernickel", null)));
+
+            ownerService.removePetFromOwner(owner.getId(), pet.getId());
+
+            assertTrue(textSearch.suggest("pumpernickel", null).isEmpty());
+        } finally {
+            petRepository.findById(pet.getId()).ifPresent(petRepository::delete);
+            ownerService.deleteOwner(owner.getId());
+        }
+    }
+
+    @Test
+    public void rejectsNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> textSearch.suggest("spot", 0));
+    }
+
+    private static List<Long> ids(List<PetSuggestion> suggestions) {
+        return suggestions.stream().map(PetSuggestion::getId).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.Media;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.TagEntity;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Maps one pet with two photos and three tags, through {@link PetTransformer} and through the
+ * builder/stream mapping it replaced. {@link #main} runs with the GC profiler; compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per mapped pet. Not part of the test run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetTransformerBenchmark {
+
+    private final PetTransformer transformer = new PetTransformer(null, null, new PetValueInterner());
+    private PetEntity petEntity;
+
+    @Setup
+    public void setUp() {
+        petEntity = PetEntity.builder()
+            .id(42L)
+            .name("Fluffy")
+            .status(Status.AVAILABLE)
+            .category(Category.builder().id(1L).name("Dogs").build())
+            .version(3L)
+            .media(List.of(Media.builder().id(1L).url("https://img.example.com/1.jpg").build(),
+                Media.builder().id(2L).url("https://img.example.com/2.jpg").build()))
+            .tags(List.of(TagEntity.builder().id(1L).name("friendly").build(),
+                TagEntity.builder().id(2L).name("vaccinated").build(),
+                TagEntity.builder().id(3L).name("house-trained").build()))
+            .build();
+    }
+
+    @Benchmark
+    public Pet handWrittenMapping() {
+        return transformer.transformEntityToDTO(petEntity);
+    }
+
+    @Benchmark
+    public Pet builderStreamMapping() {
+        Pet.PetBuilder petBuilder = Pet.builder()
+            .id(petEntity.getId())
+            .name(petEntity.getName())
+            .status(petEntity.getStatus())
+            .category(petEntity.getCategory())
+            .version(petEntity.getVersion());
+        if (petEntity.getMedia() != null) {
+            petBuilder = petBuilder.photoUrls(petEntity.getMedia().stream()
+                .map(Media::getUrl)
+                .collect(Collectors.toList()));
+        }
+        if (petEntity.getTags() != null) {
+            petBuilder = petBuilder.tags(petEntity.getTags().stream()
+                .map(tag -> Tag.builder().id(tag.getId()).name(tag.getName()).build())
+                .collect(Collectors.toList()));
+        }
+        return petBuilder.build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PetTransformerBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -3,23 +3,42 @@ package com.khchan.petstore.service;
 import com.khchan.petstore.domain.*;
 import com.khchan.petstore.dto.Pet;
 import com.khchan.petstore.dto.Tag;
+import com.khchan.petstore.repository.PetPhotoView;
+import com.khchan.petstore.repository.PetRepository;
+import com.khchan.petstore.repository.PetSummaryView;
+import com.khchan.petstore.repository.PetTagView;
+import com.khchan.petstore.repository.TagRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class PetTransformerTest {
 
     private final Category dogCategory = Category.builder().id(1L).name("Dogs").build();
 
+    private PetRepository petRepository;
+
+    private TagRepository tagRepository;
+
     private PetTransformer fixture;
 
     @BeforeEach
     public void setUp() {
-        fixture = new PetTransformer();
+        petRepository = mock(PetRepository.class);
+        tagRepository = mock(TagRepository.class);
+        fixture = new PetTransformer(petRepository, tagRepository, new PetValueInterner());
     }
 
     @Test
@@ -70,4 +89,126 @@ public class PetTransformerTest {
         assertEquals("cute", actual.getTags().get(0).getName());
     }
 
+    @Test
+    public void transformDTOsToEntitiesResolvesTagsOncePerBatch() {
+        TagEntity friendly = TagEntity.builder().id(5L).name("friendly").build();
+        TagEntity cute = TagEntity.builder().id(6L).name("cute").build();
+        doReturn(List.of(friendly)).when(tagRepository).findAllById(eq(Set.of(5L)));
+        doReturn(List.of(cute)).when(tagRepository).findByNameIn(eq(Set.of("cute", "new")));
+        Pet fluffy = Pet.builder().name("Fluffy")
+            .tags(Arrays.asList(new Tag(5L, "renamed"), new Tag(null, "cute"))).build();
+        Pet spot = Pet.builder().name("Spot")
+            .tags(Arrays.asList(new Tag(null, "cute"), new Tag(null, "new"), new Tag(null, null))).build();
+
+        List<PetEntity> actual = fixture.transformDTOsToEntities(List.of(fluffy, spot));
+
+        assertEquals(Arrays.asList(friendly, cute), actual.get(0).getTags());
+        assertSame(cute, actual.get(1).getTags().get(0));
+        assertEquals("new", actual.get(1).getTags().get(1).getName());
+        assertNull(actual.get(1).getTags().get(1).getId());
+        assertEquals(2, actual.get(1).getTags().size());
+        verify(tagRepository).saveAll(eq(List.of(actual.get(1).getTags().get(1))));
+    }
+
+    @Test
+    public void transformDTOToEntityRejectsUnknownTagId() {
+        Pet petDTO = Pet.builder().name("Fluffy").tags(List.of(new Tag(99L, "missing"))).build();
+
+        assertThrows(IllegalArgumentException.class, () -> fixture.transformDTOToEntity(petDTO));
+        verify(tagRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void transformEntityWithoutCollectionsToDTO() {
+        PetEntity petEntity = PetEntity.builder()
+            .id(2L)
+            .name("Spot")
+            .version(5L)
+            .build();
+
+        Pet actual = fixture.transformEntityToDTO(petEntity);
+
+        assertEquals(Long.valueOf(5), actual.getVersion());
+        assertNull(actual.getCategory());
+        assertNull(actual.getPhotoUrls());
+        assertNull(actual.getTags());
+    }
+
+    @Test
+    public void transformEntitiesToDTOsLoadsCollectionsPerPage() {
+        PetEntity fluffy = PetEntity.builder().id(1L).name("Fluffy").category(dogCategory).build();
+        PetEntity spot = PetEntity.builder().id(2L).name("Spot").build();
+        doReturn(List.of(tagView(1L, 5L, "cute"), tagView(1L, 6L, "fluffy"))).when(petRepository)
+            .findTagsByPetIdIn(eq(Set.of(1L, 2L)));
+        doReturn(List.of(photoView(2L, "spot.jpg"))).when(petRepository)
+            .findPhotoUrlsByPetIdIn(eq(Set.of(1L, 2L)));
+
+        List<Pet> actual = fixture.transformEntitiesToDTOs(List.of(fluffy, spot));
+
+        assertEquals(2, actual.size());
+        assertEquals("Fluffy", actual.get(0).getName());
+        assertEquals("Dogs", actual.get(0).getCategory().getName());
+        assertEquals(Arrays.asList(new Tag(5L, "cute"), new Tag(6L, "fluffy")), actual.get(0).getTags());
+        assertTrue(actual.get(0).getPhotoUrls().isEmpty());
+        assertTrue(actual.get(1).getTags().isEmpty());
+        assertEquals(List.of("spot.jpg"), actual.get(1).getPhotoUrls());
+    }
+
+    @Test
+    public void transformEntitiesToDTOsSharesCategoriesAndTags() {
+        PetEntity fluffy = PetEntity.builder().id(1L).name("Fluffy").category(dogCategory).build();
+        PetEntity spot = PetEntity.builder().id(2L).name("Spot")
+            .category(Category.builder().id(1L).name("Dogs").build()).build();
+        doReturn(List.of(tagView(1L, 5L, "cute"), tagView(2L, 5L, "cute"))).when(petRepository)
+            .findTagsByPetIdIn(eq(Set.of(1L, 2L)));
+
+        List<Pet> actual = fixture.transformEntitiesToDTOs(List.of(fluffy, spot));
+
+        assertSame(actual.get(0).getCategory(), actual.get(1).getCategory());
+        assertNotSame(dogCategory, actual.get(0).getCategory());
+        assertSame(actual.get(0).getTags().get(0), actual.get(1).getTags().get(0));
+
+        List<Pet> nextPage = fixture.transformEntitiesToDTOs(List.of(fluffy, spot));
+        assertNotSame(actual.get(0).getCategory(), nextPage.get(0).getCategory());
+        assertNotSame(actual.get(0).getTags().get(0), nextPage.get(0).getTags().get(0));
+    }
+
+    @Test
+    public void transformEntitiesToDTOsSkipsQueriesForEmptyPage() {
+        assertTrue(fixture.transformEntitiesToDTOs(List.of()).isEmpty());
+
+        verify(petRepository, never()).findTagsByPetIdIn(any());
+        verify(petRepository, never()).findPhotoUrlsByPetIdIn(any());
+    }
+
+    @Test
+    public void transformViewsToDTOsLoadsOnlyRequestedFields() {
+        PetSummaryView view = mock(PetSummaryView.class);
+        doReturn(1L).when(view).getId();
+        doReturn("Fluffy").when(view).getName();
+        doReturn(List.of(tagView(1L, 5L, "friendly"))).when(petRepository).findTagsByPetIdIn(eq(Set.of(1L)));
+
+        Pet pet = fixture.transformViewsToDTOs(List.of(view), PetField.parse("name,tags")).get(0);
+
+        assertEquals("Fluffy", pet.getName());
+        assertNull(pet.getStatus());
+        assertEquals("friendly", pet.getTags().get(0).getName());
+        assertNull(pet.getPhotoUrls());
+        verify(petRepository, never()).findPhotoUrlsByPetIdIn(any());
+    }
+
+    private PetTagView tagView(Long petId, Long id, String name) {
+        PetTagView view = mock(PetTagView.class);
+        doReturn(petId).when(view).getPetId();
+        doReturn(id).when(view).getId();
+        doReturn(name).when(view).getName();
+        return view;
+    }
+
+    private PetPhotoView photoView(Long petId, String url) {
+        PetPhotoView view = mock(PetPhotoView.class);
+        doReturn(petId).when(view).getPetId();
+        doReturn(url).when(view).getUrl();
+        return view;
+    }
 }
@@ -0,0 +1,42 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.dto.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetValueInternerTest {
+
+    private final PetValueInterner interner = new PetValueInterner();
+
+    @Test
+    public void sameIdSharesInstanceWithinScope() {
+        PetValueInterner.Scope page = interner.scope();
+        Category dogs = page.category(1L, "Dogs");
+        Tag cute = page.tag(5L, "cute");
+
+        assertSame(dogs, page.category(1L, "Dogs"));
+        assertSame(cute, page.tag(5L, "cute"));
+        assertEquals(new Category(1L, "Dogs"), dogs);
+        assertEquals(new Tag(5L, "cute"), cute);
+    }
+
+    @Test
+    public void scopesDoNotShareInstances() {
+        PetValueInterner.Scope first = interner.scope();
+        PetValueInterner.Scope second = interner.scope();
+
+        assertNotSame(first.tag(5L, "cute"), second.tag(5L, "cute"));
+        assertNotSame(first.category(1L, "Dogs"), second.category(1L, "Dogs"));
+        assertEquals("adorable", second.tag(6L, "adorable").getName());
+    }
+
+    @Test
+    public void valuesWithoutIdAreNotShared() {
+        PetValueInterner.Scope page = interner.scope();
+
+        assertNotSame(page.tag(null, "new"), page.tag(null, "new"));
+        assertNotSame(page.category(null, "New"), page.category(null, "New"));
+    }
+}
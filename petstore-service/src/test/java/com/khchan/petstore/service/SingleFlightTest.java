@@ -0,0 +1,73 @@
+package com.khchan.petstore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<Long, String> fixture = new SingleFlight<>();
+
+    @Test
+    public void concurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> fixture.execute(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "Fluffy";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> fixture.execute(1L, () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        while (fixture.stats().getCoalesced() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("Fluffy", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("Fluffy", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, fixture.stats().getLoads());
+        assertEquals(1, fixture.stats().getCoalesced());
+        assertEquals(0, fixture.stats().getInFlight());
+    }
+
+    @Test
+    public void completedLoadsAreNotCached() {
+        assertEquals("first", fixture.execute(1L, () -> "first"));
+        assertEquals("second", fixture.execute(1L, () -> "second"));
+
+        assertEquals(2, fixture.stats().getLoads());
+        assertEquals(0, fixture.stats().getCoalesced());
+    }
+
+    @Test
+    public void failedLoadIsNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> fixture.execute(1L, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("Fluffy", fixture.execute(1L, () -> "Fluffy"));
+        assertEquals(0, fixture.stats().getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
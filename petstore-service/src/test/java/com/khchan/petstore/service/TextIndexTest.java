@@ -0,0 +1,73 @@
+package com.khchan.petstore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextIndexTest {
+
+    private final TextIndex fixture = new TextIndex();
+
+    @BeforeEach
+    void indexPets() {
+        fixture.put(1L, "Fluffy", List.of("good with kids"));
+        fixture.put(2L, "Spot", List.of("good with other animals"));
+        fixture.put(3L, "Cthulu", List.of("good with kids", "good with other animals"));
+        fixture.put(4L, "Flufferton the Great", List.of());
+        fixture.put(5L, "Zoë", List.of("fluffy coat"));
+    }
+
+    @Test
+    public void exactNameMatchOutranksPrefixAndTagMatches() {
+        assertEquals(List.of(1L, 5L), ids(fixture.search("fluffy", 10)));
+        assertEquals(List.of(1L, 4L, 5L), ids(fixture.search("fluf", 10)));
+    }
+
+    @Test
+    public void everyWordMustMatch() {
+        assertEquals(List.of(1L, 3L), ids(fixture.search("good kids", 10)));
+        assertEquals(List.of(3L), ids(fixture.search("cthulu other", 10)));
+        assertTrue(fixture.search("spot kids", 10).isEmpty());
+    }
+
+    @Test
+    public void toleratesTyposAndAccents() {
+        assertEquals(List.of(1L, 5L), ids(fixture.search("fluffu", 10)));
+        assertEquals(List.of(3L), ids(fixture.search("chtulu", 10)));
+        assertEquals(List.of(5L), ids(fixture.search("zoe", 10)));
+        assertEquals(List.of(2L), ids(fixture.search("spo", 10)));
+        // Too short to risk a typo match
+        assertTrue(fixture.search("spt", 10).isEmpty());
+    }
+
+    @Test
+    public void updatesAndRemovalsReplacePreviousTerms() {
+        fixture.put(2L, "Rover", List.of());
+        assertTrue(fixture.search("spot", 10).isEmpty());
+        assertEquals(List.of(2L), ids(fixture.search("rover", 10)));
+
+        fixture.remove(2L);
+        assertTrue(fixture.search("rover", 10).isEmpty());
+        assertEquals(4, fixture.size());
+    }
+
+    @Test
+    public void limitKeepsBestHits() {
+        assertEquals(List.of(1L), ids(fixture.search("fluf", 1)));
+        assertTrue(fixture.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    public void editDistanceCountsTranspositionsOnce() {
+        assertEquals(1, TextIndex.editDistance("chtulu", "cthulu", 2));
+        assertTrue(TextIndex.editDistance("kitten", "sitting", 1) > 1);
+        assertEquals(3, TextIndex.editDistance("kitten", "sitting", 3));
+    }
+
+    private static List<Long> ids(List<TextIndex.Hit> hits) {
+        return hits.stream().map(TextIndex.Hit::petId).toList();
+    }
+}
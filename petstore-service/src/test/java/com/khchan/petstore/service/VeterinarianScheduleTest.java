@@ -0,0 +1,113 @@
+package com.khchan.petstore.service;
+
+import com.khchan.petstore.domain.Appointment;
+import com.khchan.petstore.domain.AppointmentStatus;
+import com.khchan.petstore.domain.PetEntity;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.domain.Veterinarian;
+import com.khchan.petstore.dto.ScheduledAppointment;
+import com.khchan.petstore.test.DataSourceProxyConfig;
+import com.khchan.petstore.test.JpaQueryTrackingRule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(DataSourceProxyConfig.class)
+@Transactional
+public class VeterinarianScheduleTest {
+
+    private static final LocalDateTime WEEK_START = LocalDateTime.of(2025, 6, 2, 0, 0);
+
+    @RegisterExtension
+    JpaQueryTrackingRule tracking = new JpaQueryTrackingRule()
+        .printQueriesOnFailure(true);
+
+    @Autowired
+    private VeterinarianService veterinarianService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void loadsScheduleWithPetsInTwoQueries() {
+        Veterinarian vet = new Veterinarian("Lee", "Ortiz", "General Practice", "VET-SCHEDULE-1");
+        Veterinarian other = new Veterinarian("Kim", "Park", "Surgery", "VET-SCHEDULE-2");
+        entityManager.persist(vet);
+        entityManager.persist(other);
+        for (int i = 0; i < 5; i++) {
+            PetEntity pet = pet("Patient " + i);
+            // Booked out of order; the schedule comes back in time order
+            appointment(pet, vet, WEEK_START.plusDays(4 - i).withHour(9), "Visit " + i);
+        }
+        appointment(pet("Elsewhere"), other, WEEK_START.plusDays(1), "Other vet");
+        appointment(pet("Too early"), vet, WEEK_START.minusMinutes(1), "Last week");
+        entityManager.flush();
+        entityManager.clear();
+        tracking.resetQueryCounters();
+
+        List<ScheduledAppointment> schedule = veterinarianService
+            .findSchedule(vet.getId(), WEEK_START, WEEK_START.plusWeeks(1)).orElseThrow();
+
+        tracking.assertSelectCount(2);
+        assertEquals(List.of("Visit 4", "Visit 3", "Visit 2", "Visit 1", "Visit 0"),
+            schedule.stream().map(ScheduledAppointment::getReason).toList());
+        assertEquals("Patient 4", schedule.get(0).getPetName());
+        assertEquals(Status.AVAILABLE, schedule.get(0).getPetStatus());
+    }
+
+    @Test
+    public void consecutiveWindowsDoNotOverlap() {
+        Veterinarian vet = new Veterinarian("Ana", "Cruz", "General Practice", "VET-SCHEDULE-3");
+        entityManager.persist(vet);
+        appointment(pet("Boundary"), vet, WEEK_START.plusWeeks(1), "Monday morning");
+        entityManager.flush();
+
+        LocalDateTime next = WEEK_START.plusWeeks(1);
+        assertTrue(veterinarianService.findSchedule(vet.getId(), WEEK_START, next).orElseThrow().isEmpty());
+        assertEquals(1, veterinarianService.findSchedule(vet.getId(), next, next.plusWeeks(1)).orElseThrow().size());
+    }
+
+    @Test
+    public void appointmentsIndexedByVeterinarianAndTime() {
+        Number indexes = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES"
+                    + " WHERE INDEX_NAME = 'IDX_APPOINTMENTS_VETERINARIAN_DATE_TIME' AND TABLE_NAME = 'APPOINTMENTS'")
+            .getSingleResult();
+        assertEquals(1, indexes.intValue());
+    }
+
+    @Test
+    public void unknownVeterinarianIsEmpty() {
+        assertTrue(veterinarianService.findSchedule(-1L, WEEK_START, WEEK_START.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void rejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class,
+            () -> veterinarianService.findSchedule(1L, WEEK_START, WEEK_START));
+        assertThrows(IllegalArgumentException.class,
+            () -> veterinarianService.findSchedule(1L, WEEK_START, WEEK_START.plusDays(32)));
+    }
+
+    private PetEntity pet(String name) {
+        PetEntity pet = new PetEntity();
+        pet.setName(name);
+        pet.setStatus(Status.AVAILABLE);
+        entityManager.persist(pet);
+        return pet;
+    }
+
+    private void appointment(PetEntity pet, Veterinarian vet, LocalDateTime dateTime, String reason) {
+        entityManager.persist(new Appointment(pet, vet, dateTime, reason, AppointmentStatus.SCHEDULED));
+    }
+}
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request handling on /pets and /pet/{id}.
+# Needs Java 21+ on the PATH and `hey` (https://github.com/rakyll/hey). See VIRTUAL_THREADS.md.
+#
+#   ./petstore-web/bench/thread-mode-benchmark.sh [duration] [concurrency...]
+#
+set -euo pipefail
+
+DURATION=${1:-30s}
+shift || true
+CONCURRENCY=${*:-"50 200 800"}
+PORT=${PORT:-8080}
+JAR=$(ls petstore-web/target/petstore-web-*.jar | grep -v original | head -1)
+RESULTS=${RESULTS:-target/thread-mode-benchmark.txt}
+
+mkdir -p "$(dirname "$RESULTS")"
+: > "$RESULTS"
+
+run_mode() {
+    local mode=$1 profile=$2
+    java ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" --spring.jpa.show-sql=false \
+        ${profile:+--spring.profiles.active=$profile} > "target/petstore-$mode.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+    until curl -sf "http://localhost:$PORT/pets" > /dev/null; do sleep 1; done
+
+    # Warm up the JIT and connection pool before measuring
+    hey -z 10s -c 50 "http://localhost:$PORT/pets" > /dev/null
+
+    for c in $CONCURRENCY; do
+        for path in "/pets?limit=20" "/pet/1"; do
+            echo "== $mode c=$c $path" | tee -a "$RESULTS"
+            hey -z "$DURATION" -c "$c" "http://localhost:$PORT$path" \
+                | grep -E "Requests/sec|99% in|\[5[0-9][0-9]\]" | tee -a "$RESULTS"
+        done
+    done
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform ""
+run_mode virtual virtual-threads
+
+echo "Pinning reports (virtual mode):"
+grep -c "pinned for" target/petstore-virtual.log || true
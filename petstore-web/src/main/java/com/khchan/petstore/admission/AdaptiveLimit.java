@@ -0,0 +1,76 @@
+package com.khchan.petstore.admission;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease (AIMD). A request that
+ * finishes within the target latency raises the limit by {@code 1/limit}, about one per limit's worth of
+ * requests. A slow or failed request multiplies it by the backoff ratio. The limit only grows while at
+ * least half of it is in use, so a quiet period cannot inflate it beyond what was ever tested.
+ */
+public class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private double limit;
+    private int inFlight;
+    private long admitted;
+    private long rejected;
+    private long shedForPool;
+    private long backoffs;
+
+    public AdaptiveLimit(AdmissionProperties.Limit properties) {
+        if (properties.getMinLimit() < 1 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalArgumentException("Admission limits need 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.targetLatencyNanos = properties.getTargetLatency().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        admitted++;
+        return true;
+    }
+
+    /**
+     * Returns a permit and adapts the limit to how the request went.
+     *
+     * @param overloaded whether the request failed in a way that points at saturation (5xx or exception)
+     */
+    public synchronized void release(long latencyNanos, boolean overloaded) {
+        inFlight--;
+        if (overloaded || latencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            backoffs++;
+        } else if (inFlight + 1 >= limit / 2) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    synchronized void recordShedForPool() {
+        shedForPool++;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized AdmissionStats stats() {
+        return AdmissionStats.builder()
+            .limit((int) limit)
+            .inFlight(inFlight)
+            .admitted(admitted)
+            .rejected(rejected)
+            .shedForPool(shedForPool)
+            .backoffs(backoffs)
+            .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.khchan.petstore.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    @Bean
+    public PetAdmissionControl petAdmissionControl(AdmissionProperties properties, DataSource dataSource) {
+        return new PetAdmissionControl(properties, dataSource);
+    }
+
+    /**
+     * Covers the {@code PetController} routes except the long-lived {@code /pets/changes} and
+     * {@code /pets/stream} responses, which would hold a permit for minutes.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "petstore.admission", name = "enabled", matchIfMissing = true)
+    public MappedInterceptor admissionInterceptor(PetAdmissionControl admissionControl, AdmissionProperties properties) {
+        return new MappedInterceptor(
+            new String[] {"/pet", "/pet/**", "/pets", "/pets/**"},
+            new String[] {"/pets/changes", "/pets/stream"},
+            new AdmissionInterceptor(admissionControl, properties.getRetryAfter()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.khchan.petstore.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Applies {@link PetAdmissionControl} to pet requests: GET and HEAD count as reads, everything else
+ * as a write. Rejected requests get 503 with {@code Retry-After} before the handler runs.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+    private static final String STARTED_AT = AdmissionInterceptor.class.getName() + ".startedAt";
+
+    private final PetAdmissionControl admissionControl;
+    private final String retryAfter;
+
+    public AdmissionInterceptor(PetAdmissionControl admissionControl, Duration retryAfter) {
+        this.admissionControl = admissionControl;
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean write = !request.getMethod().equals("GET") && !request.getMethod().equals("HEAD");
+        AdaptiveLimit permit = admissionControl.tryAdmit(write);
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            return false;
+        }
+        request.setAttribute(PERMIT, permit);
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof AdaptiveLimit permit) {
+            request.removeAttribute(PERMIT);
+            long latency = System.nanoTime() - (Long) request.getAttribute(STARTED_AT);
+            permit.release(latency, ex != null || response.getStatus() >= 500);
+        }
+    }
+}
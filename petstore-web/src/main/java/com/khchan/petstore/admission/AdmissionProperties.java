@@ -0,0 +1,49 @@
+package com.khchan.petstore.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limits for {@code PetController}. Reads and writes have their own limit, each adapting
+ * between {@code min-limit} and {@code max-limit} to the latency it observes.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "petstore.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    /**
+     * Requests are shed while more threads than this wait for a JDBC connection; a negative value
+     * disables the check.
+     */
+    private int maxPoolWaiters = 8;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private Limit reads = new Limit(64, 8, 256, Duration.ofMillis(250));
+    private Limit writes = new Limit(16, 2, 64, Duration.ofMillis(500));
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        /**
+         * Requests slower than this shrink the limit; faster ones let it grow.
+         */
+        private Duration targetLatency;
+        private double backoffRatio = 0.9;
+
+        public Limit() {
+        }
+
+        Limit(int initialLimit, int minLimit, int maxLimit, Duration targetLatency) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.targetLatency = targetLatency;
+        }
+    }
+}
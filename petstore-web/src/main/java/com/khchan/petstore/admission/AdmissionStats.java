@@ -0,0 +1,15 @@
+package com.khchan.petstore.admission;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class AdmissionStats {
+    private int limit;
+    private int inFlight;
+    private long admitted;
+    private long rejected;
+    private long shedForPool;
+    private long backoffs;
+}
@@ -0,0 +1,76 @@
+package com.khchan.petstore.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides whether a {@code PetController} request may run now. A request is turned away when its
+ * read or write limit is exhausted, or when too many threads are already waiting for a JDBC connection.
+ * Rejecting right away, rather than queueing until a timeout, keeps latency bounded for the requests
+ * that do get in.
+ */
+@Slf4j
+public class PetAdmissionControl {
+
+    private final AdaptiveLimit reads;
+    private final AdaptiveLimit writes;
+    private final int maxPoolWaiters;
+    private final DataSource dataSource;
+    private volatile HikariPoolMXBean pool;
+
+    public PetAdmissionControl(AdmissionProperties properties, DataSource dataSource) {
+        this.reads = new AdaptiveLimit(properties.getReads());
+        this.writes = new AdaptiveLimit(properties.getWrites());
+        this.maxPoolWaiters = properties.getMaxPoolWaiters();
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return the limit the request was admitted under, to be released when it completes, or null if
+     * it must be rejected
+     */
+    public AdaptiveLimit tryAdmit(boolean write) {
+        AdaptiveLimit limit = write ? writes : reads;
+        if (maxPoolWaiters >= 0 && poolWaiters() > maxPoolWaiters) {
+            limit.recordShedForPool();
+            return null;
+        }
+        return limit.tryAcquire() ? limit : null;
+    }
+
+    public Map<String, AdmissionStats> stats() {
+        Map<String, AdmissionStats> stats = new LinkedHashMap<>();
+        stats.put("reads", reads.stats());
+        stats.put("writes", writes.stats());
+        return stats;
+    }
+
+    private int poolWaiters() {
+        HikariPoolMXBean pool = this.pool;
+        if (pool == null) {
+            pool = resolvePool();
+            if (pool == null) {
+                return 0;
+            }
+        }
+        return pool.getThreadsAwaitingConnection();
+    }
+
+    // The pool only exists after the first connection, so keep looking until it does
+    private HikariPoolMXBean resolvePool() {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            log.debug("Cannot reach the connection pool, admission ignores pool saturation", e);
+        }
+        return pool;
+    }
+}
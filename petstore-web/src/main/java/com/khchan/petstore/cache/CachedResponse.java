@@ -0,0 +1,7 @@
+package com.khchan.petstore.cache;
+
+/**
+ * A response body already encoded as JSON, together with the ETag it was served with.
+ */
+public record CachedResponse(byte[] body, String eTag) {
+}
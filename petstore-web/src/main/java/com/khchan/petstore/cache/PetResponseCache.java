@@ -0,0 +1,130 @@
+package com.khchan.petstore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.khchan.petstore.service.PetChangeEvent;
+import com.khchan.petstore.service.PetService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serialized JSON of full-representation {@code /pet/{id}} responses and {@code /pets} pages,
+ * bounded by total body size. Entries are evicted after a pet write commits: the pet's own entry
+ * and every page, since any page may list the pet or end before a newly created one. Pages live in
+ * a cache of their own, so dropping them is a single {@code invalidateAll} rather than a scan over
+ * every cached pet; a batch write sends one event per pet, and after the first the page cache is
+ * already empty.
+ *
+ * <p>A load that races with a write must not put its stale bytes back after the eviction. Callers
+ * capture {@link #generation()} before reading and pass it to {@code put}. An entry is dropped if
+ * any invalidation happened since then.
+ *
+ * <p>Pages are keyed by the page they resolve to rather than by the raw query parameters, so
+ * {@code ?limit=500} and {@code ?limit=100}, or no limit and the default, share one entry.
+ *
+ * <p>Writes that bypass {@code PetService} publish no event; {@code expire-after-write} bounds how
+ * long such writes can go unseen.
+ */
+@Component
+public class PetResponseCache {
+
+    private final Cache<Long, CachedResponse> pets;
+    private final Cache<PageKey, CachedResponse> pages;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PetResponseCache(@Value("${petstore.response-cache.max-size:32MB}") DataSize maxSize,
+                            @Value("${petstore.response-cache.page-max-size:8MB}") DataSize pageMaxSize,
+                            @Value("${petstore.response-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.pets = newCache(maxSize, expireAfterWrite);
+        this.pages = newCache(pageMaxSize, expireAfterWrite);
+    }
+
+    public CachedResponse getPet(Long id) {
+        return pets.getIfPresent(id);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor or page size is invalid
+     */
+    public CachedResponse getPage(String after, Integer limit) {
+        return pages.getIfPresent(PageKey.of(after, limit));
+    }
+
+    /**
+     * Current invalidation generation; read it before loading the data for a later {@code put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void putPet(Long id, long loadedAt, CachedResponse response) {
+        put(pets, id, loadedAt, response);
+    }
+
+    public void putPage(String after, Integer limit, long loadedAt, CachedResponse response) {
+        put(pages, PageKey.of(after, limit), loadedAt, response);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPetChange(PetChangeEvent event) {
+        // Bump first so a put racing with this eviction sees the change and backs out
+        generation.incrementAndGet();
+        invalidations.increment();
+        pets.invalidate(event.getPetId());
+        pages.invalidateAll();
+    }
+
+    public ResponseCacheStats stats() {
+        // Apply pending maintenance so size and weight reflect recent writes
+        pets.cleanUp();
+        pages.cleanUp();
+        CacheStats stats = pets.stats().plus(pages.stats());
+        return ResponseCacheStats.builder()
+            .hits(stats.hitCount())
+            .misses(stats.missCount())
+            .evictions(stats.evictionCount())
+            .invalidations(invalidations.sum())
+            .entries(pets.estimatedSize() + pages.estimatedSize())
+            .bytes(weightedSize(pets) + weightedSize(pages))
+            .build();
+    }
+
+    private <K> void put(Cache<K, CachedResponse> cache, K key, long loadedAt, CachedResponse response) {
+        if (generation.get() != loadedAt) {
+            return;
+        }
+        cache.put(key, response);
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static <K> Cache<K, CachedResponse> newCache(DataSize maxSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((K key, CachedResponse response) -> response.body().length)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+
+    private static long weightedSize(Cache<?, CachedResponse> cache) {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private record PageKey(long afterId, int pageSize) {
+
+        static PageKey of(String after, Integer limit) {
+            return new PageKey(PetService.resolveAfterId(after), PetService.resolvePageSize(limit));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.khchan.petstore.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ResponseCacheStats {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private long entries;
+    private long bytes;
+}
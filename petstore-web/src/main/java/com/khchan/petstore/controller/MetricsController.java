@@ -0,0 +1,111 @@
+package com.khchan.petstore.controller;
+
+import com.khchan.petstore.admission.AdmissionStats;
+import com.khchan.petstore.admission.PetAdmissionControl;
+import com.khchan.petstore.cache.PetResponseCache;
+import com.khchan.petstore.cache.ResponseCacheStats;
+import com.khchan.petstore.dto.CoalescingStats;
+import com.khchan.petstore.feed.ChangeFeedStats;
+import com.khchan.petstore.feed.PetChangeFeed;
+import com.khchan.petstore.idempotency.IdempotencyStats;
+import com.khchan.petstore.idempotency.IdempotencyStore;
+import com.khchan.petstore.monitoring.RouteMetrics;
+import com.khchan.petstore.monitoring.RouteStats;
+import com.khchan.petstore.monitoring.SqlBudgetEnforcer;
+import com.khchan.petstore.service.PetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operational counters of the read path. Only reachable from loopback addresses.
+ */
+@RestController
+public class MetricsController {
+
+    private final PetService petService;
+    private final PetResponseCache responseCache;
+    private final RouteMetrics routeMetrics;
+    private final SqlBudgetEnforcer sqlBudgetEnforcer;
+    private final PetChangeFeed changeFeed;
+    private final IdempotencyStore idempotencyStore;
+    private final PetAdmissionControl admissionControl;
+
+    @Autowired
+    public MetricsController(PetService petService, PetResponseCache responseCache, RouteMetrics routeMetrics,
+                             SqlBudgetEnforcer sqlBudgetEnforcer, PetChangeFeed changeFeed,
+                             IdempotencyStore idempotencyStore, PetAdmissionControl admissionControl) {
+        this.petService = petService;
+        this.responseCache = responseCache;
+        this.routeMetrics = routeMetrics;
+        this.sqlBudgetEnforcer = sqlBudgetEnforcer;
+        this.changeFeed = changeFeed;
+        this.idempotencyStore = idempotencyStore;
+        this.admissionControl = admissionControl;
+    }
+
+    /**
+     * How many {@code /pet/{id}} loads ran and how many concurrent callers shared one instead.
+     */
+    @GetMapping(value = "/metrics/pet-lookups")
+    public CoalescingStats petLookups() {
+        return petService.getPetLookupStats();
+    }
+
+    /**
+     * Hit/miss counts and size of the serialized pet response cache.
+     */
+    @GetMapping(value = "/metrics/response-cache")
+    public ResponseCacheStats responseCache() {
+        return responseCache.stats();
+    }
+
+    /**
+     * Wall time, SQL statement count and JDBC time percentiles per route since startup or the last reset.
+     */
+    @GetMapping(value = "/metrics/routes")
+    public List<RouteStats> routes() {
+        return routeMetrics.snapshot();
+    }
+
+    @DeleteMapping(value = "/metrics/routes")
+    public void resetRoutes() {
+        routeMetrics.reset();
+    }
+
+    /**
+     * SQL budget violations per route or service method since startup.
+     */
+    @GetMapping(value = "/metrics/sql-budget")
+    public Map<String, Long> sqlBudgetViolations() {
+        return sqlBudgetEnforcer.getViolations();
+    }
+
+    /**
+     * Subscribers of {@code /pets/changes}, and how many of them were reset or fell a full buffer behind.
+     */
+    @GetMapping(value = "/metrics/change-feed")
+    public ChangeFeedStats changeFeed() {
+        return changeFeed.stats();
+    }
+
+    /**
+     * Pet writes sent with an {@code Idempotency-Key}: how many ran, were replayed or were turned away.
+     */
+    @GetMapping(value = "/metrics/idempotency")
+    public IdempotencyStats idempotency() {
+        return idempotencyStore.stats();
+    }
+
+    /**
+     * Current read and write concurrency limits of the pet endpoints, and how many requests they turned away.
+     */
+    @GetMapping(value = "/metrics/admission")
+    public Map<String, AdmissionStats> admission() {
+        return admissionControl.stats();
+    }
+}
@@ -0,0 +1,29 @@
+package com.khchan.petstore.controller;
+
+import com.khchan.petstore.dto.OwnerSummary;
+import com.khchan.petstore.service.OwnerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class OwnerController {
+
+    private final OwnerService ownerService;
+
+    @Autowired
+    public OwnerController(OwnerService ownerService) {
+        this.ownerService = ownerService;
+    }
+
+    /**
+     * Owner with their pets' breed, insurance status, next vaccination and most recent past
+     * appointment, loaded in a fixed number of queries.
+     */
+    @GetMapping(value = "/owners/{id}/summary")
+    public ResponseEntity<OwnerSummary> getOwnerSummary(@PathVariable Long id) {
+        return ResponseEntity.of(ownerService.findOwnerSummary(id));
+    }
+}
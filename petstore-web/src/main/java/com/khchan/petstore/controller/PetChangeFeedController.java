@@ -0,0 +1,43 @@
+package com.khchan.petstore.controller;
+
+import com.khchan.petstore.feed.PetChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class PetChangeFeedController {
+
+    private final PetChangeFeed changeFeed;
+
+    @Autowired
+    public PetChangeFeedController(PetChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Pushes {@code pet-change} events for every committed create, update, status change and removal,
+     * replacing polling of {@code /pets}. Reconnects resume after the {@code Last-Event-ID} header, or
+     * the {@code lastEventId} parameter for a client's first connection. A {@code reset} event means
+     * changes were missed and the client should refetch. Answers 503 when the feed is full.
+     */
+    @GetMapping(value = "/pets/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        SseEmitter emitter = changeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
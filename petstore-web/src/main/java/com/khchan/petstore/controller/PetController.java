@@ -1,31 +1,213 @@
 package com.khchan.petstore.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.khchan.petstore.cache.CachedResponse;
+import com.khchan.petstore.cache.PetResponseCache;
+import com.khchan.petstore.domain.Status;
 import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetLookupResult;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.dto.PetProfile;
+import com.khchan.petstore.dto.PetSearchFilter;
+import com.khchan.petstore.dto.PetSuggestion;
+import com.khchan.petstore.json.PetJsonSerializers;
+import com.khchan.petstore.service.PetCatalogReader;
+import com.khchan.petstore.service.PetField;
+import com.khchan.petstore.service.PetProfileService;
 import com.khchan.petstore.service.PetService;
+import com.khchan.petstore.service.PetTextSearch;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 public class PetController {
 
     private final PetService petService;
+    private final PetCatalogReader catalogReader;
+    private final PetTextSearch textSearch;
+    private final PetProfileService profileService;
+    private final PetResponseCache responseCache;
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter streamWriter;
 
     @Autowired
-    public PetController(PetService petService) {
+    public PetController(PetService petService, PetCatalogReader catalogReader, PetTextSearch textSearch,
+                         PetProfileService profileService, PetResponseCache responseCache,
+                         ObjectMapper objectMapper) {
         this.petService = petService;
+        this.catalogReader = catalogReader;
+        this.textSearch = textSearch;
+        this.profileService = profileService;
+        this.responseCache = responseCache;
+        this.jsonWriter = objectMapper.writer();
+        // Flushing after every pet would turn each line into its own socket write
+        this.streamWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    /**
+     * Pages carry a weak ETag derived from the ids and versions on the page. A matching
+     * If-None-Match is answered with 304 after an id/version scan, without building any DTOs.
+     * {@code fields} restricts each pet to the listed fields; id and version are always included.
+     * Full-representation pages are served from {@link PetResponseCache} when possible, and otherwise
+     * written straight from {@link PetCatalogReader} rows without loading any entities.
+     */
     @GetMapping(value = "/pets")
-    public List<Pet> findAllPets() {
-        return petService.findAllPets();
+    public ResponseEntity<?> findPets(@RequestParam(value = "limit", required = false) Integer limit,
+                                      @RequestParam(value = "after", required = false) String after,
+                                      @RequestParam(value = "fields", required = false) String fields,
+                                      WebRequest request) {
+        Set<PetField> fieldSet = PetField.parse(fields);
+        boolean cacheable = fieldSet.equals(PetField.ALL);
+        if (cacheable) {
+            CachedResponse cached = responseCache.getPage(after, limit);
+            if (cached != null) {
+                return cachedResponse(cached, request);
+            }
+        }
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            && request.checkNotModified(pageETag(petService.findPageFingerprint(after, limit), fieldSet))) {
+            return null;
+        }
+        if (!cacheable) {
+            PetPage page = petService.findPets(after, limit, fieldSet);
+            return ResponseEntity.ok().eTag(pageETag(petService.fingerprint(page), fieldSet)).body(page);
+        }
+        long generation = responseCache.generation();
+        CachedResponse response = writeCatalogPage(after, limit);
+        responseCache.putPage(after, limit, generation, response);
+        return cachedResponse(response, request);
     }
 
+    /**
+     * Multi-get: resolves every id in one round of IN queries and answers in request order, with
+     * {@code found: false} for ids that do not exist.
+     */
+    @GetMapping(value = "/pets", params = "ids")
+    public List<PetLookupResult> findPetsByIds(@RequestParam("ids") List<Long> ids) {
+        return petService.findPetsByIds(ids);
+    }
+
+    /**
+     * Pets matching every given filter, one keyset page at a time. {@code tag} matches a tag name;
+     * {@code sort} is {@code id} (default) or {@code name}, prefixed with {@code -} for descending.
+     * Cursors only continue the search and ordering they were issued for.
+     */
+    @GetMapping(value = "/pets/search")
+    public PetPage searchPets(@RequestParam(value = "status", required = false) Status status,
+                              @RequestParam(value = "categoryId", required = false) Long categoryId,
+                              @RequestParam(value = "breedId", required = false) Long breedId,
+                              @RequestParam(value = "ownerId", required = false) Long ownerId,
+                              @RequestParam(value = "tag", required = false) String tag,
+                              @RequestParam(value = "sort", required = false) String sort,
+                              @RequestParam(value = "limit", required = false) Integer limit,
+                              @RequestParam(value = "after", required = false) String after) {
+        PetSearchFilter filter = PetSearchFilter.builder()
+            .status(status)
+            .categoryId(categoryId)
+            .breedId(breedId)
+            .ownerId(ownerId)
+            .tag(tag)
+            .build();
+        return petService.searchPets(filter, sort, after, limit);
+    }
+
+    /**
+     * Search-box suggestions: pets whose name or tags match every word of {@code q}, allowing
+     * prefixes and small typos, best match first. Answered from memory without touching the database.
+     */
+    @GetMapping(value = "/pets/suggest")
+    public List<PetSuggestion> suggestPets(@RequestParam("q") String query,
+                                           @RequestParam(value = "limit", required = false) Integer limit) {
+        return textSearch.suggest(query, limit);
+    }
+
+    /**
+     * Exports the full catalog as newline-delimited JSON, one pet per line, writing each pet
+     * as soon as it is read so memory stays constant no matter how many rows are exported.
+     */
+    @GetMapping(value = "/pets/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPets() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = streamWriter.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                petService.streamPets(pet -> {
+                    try {
+                        streamWriter.writeValue(generator, pet);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Pets carry a strong ETag built from their version. A matching If-None-Match is answered
+     * with 304 after reading only the version column. {@code fields} works as on {@code /pets}.
+     * The full representation is served from {@link PetResponseCache} when possible.
+     */
     @GetMapping(value = "/pet/{id}")
-    public Pet findPet(@PathVariable("id") Long id) {
-        return petService.findPet(id);
+    public ResponseEntity<?> findPet(@PathVariable("id") Long id,
+                                     @RequestParam(value = "fields", required = false) String fields,
+                                     WebRequest request) {
+        Set<PetField> fieldSet = PetField.parse(fields);
+        boolean cacheable = fieldSet.equals(PetField.ALL);
+        if (cacheable) {
+            CachedResponse cached = responseCache.getPet(id);
+            if (cached != null) {
+                return cachedResponse(cached, request);
+            }
+        }
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = petService.findPetVersion(id);
+            if (version.isPresent() && request.checkNotModified(petETag(id, version.get(), fieldSet))) {
+                return null;
+            }
+        }
+        long generation = responseCache.generation();
+        Pet pet = petService.findPet(id, fieldSet);
+        if (pet == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (pet.getVersion() == null) {
+            return ResponseEntity.ok().body(pet);
+        }
+        String eTag = petETag(id, pet.getVersion(), fieldSet);
+        if (!cacheable) {
+            return ResponseEntity.ok().eTag(eTag).body(pet);
+        }
+        CachedResponse response = new CachedResponse(encode(pet), eTag);
+        responseCache.putPet(id, generation, response);
+        return cachedResponse(response, request);
+    }
+
+    /**
+     * The pet with its medical records, vaccinations, appointments and insurance, read concurrently.
+     * Answers 503 if the reads do not finish within {@code petstore.pet-profile.timeout}.
+     */
+    @GetMapping(value = "/pet/{id}/full")
+    public ResponseEntity<PetProfile> findPetProfile(@PathVariable("id") Long id) {
+        return ResponseEntity.of(profileService.findProfile(id));
     }
 
     @PostMapping(value = "/pet")
@@ -34,6 +216,15 @@ public class PetController {
         return petService.savePet(pet);
     }
 
+    /**
+     * Creates or updates many pets in a single transaction using JDBC batching.
+     */
+    @PostMapping(value = "/pets/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<Pet> savePets(@RequestBody List<Pet> pets) {
+        return petService.savePets(pets);
+    }
+
     @PutMapping(value ="/pet")
     public Pet updatePet(@RequestBody Pet pet) {
         return petService.savePet(pet);
@@ -43,4 +234,74 @@ public class PetController {
     public void removePet(@PathVariable("id") Long id) {
         petService.removePet(id);
     }
+
+    private static ResponseEntity<byte[]> cachedResponse(CachedResponse cached, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(cached.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(cached.eTag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(cached.body());
+    }
+
+    /**
+     * Same body as a serialized full-representation {@link PetPage}, with each row written into the
+     * generator as it is read.
+     */
+    private CachedResponse writeCatalogPage(String after, Integer limit) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        PetCatalogReader.Page page;
+        try (JsonGenerator generator = jsonWriter.createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            page = catalogReader.readPage(after, limit, row -> {
+                try {
+                    PetJsonSerializers.writeCatalogRow(row, generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", page.nextCursor());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CachedResponse(body.toByteArray(), pageETag(page.fingerprint(), PetField.ALL));
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return jsonWriter.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String petETag(Long id, Long version, Set<PetField> fields) {
+        return "\"pet-" + id + "-v" + version + representationSuffix(fields) + "\"";
+    }
+
+    private static String pageETag(String fingerprint, Set<PetField> fields) {
+        return "W/\"" + fingerprint + representationSuffix(fields) + "\"";
+    }
+
+    // Each field set is a different representation of the same pets, so it needs its own validator
+    private static String representationSuffix(Set<PetField> fields) {
+        return fields.equals(PetField.ALL) ? "" : "-" + PetField.key(fields);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleBadRequest(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<String> handleTimeout(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(e.getMessage());
+    }
 }
@@ -0,0 +1,47 @@
+package com.khchan.petstore.controller;
+
+import com.khchan.petstore.dto.ScheduledAppointment;
+import com.khchan.petstore.service.VeterinarianService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+public class VeterinarianController {
+
+    private final VeterinarianService veterinarianService;
+
+    @Autowired
+    public VeterinarianController(VeterinarianService veterinarianService) {
+        this.veterinarianService = veterinarianService;
+    }
+
+    /**
+     * Appointments of a veterinarian from {@code from} (inclusive) to {@code to} (exclusive), ISO local
+     * date-times, with each pet's name and status. Windows are capped at 31 days; page forward by passing
+     * the previous {@code to} as the next {@code from}.
+     */
+    @GetMapping(value = "/veterinarians/{id}/schedule")
+    public ResponseEntity<List<ScheduledAppointment>> getSchedule(
+            @PathVariable Long id,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.of(veterinarianService.findSchedule(id, from, to));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleBadRequest(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+}
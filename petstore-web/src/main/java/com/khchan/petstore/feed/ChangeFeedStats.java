@@ -0,0 +1,14 @@
+package com.khchan.petstore.feed;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ChangeFeedStats {
+    private String lastEventId;
+    private int subscribers;
+    private long published;
+    private long resets;
+    private long overflows;
+}
@@ -0,0 +1,247 @@
+package com.khchan.petstore.feed;
+
+import com.khchan.petstore.service.PetChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-sent event feed of committed pet changes. Every subscriber gets its own bounded buffer,
+ * drained on the feed's own executor (see {@link PetChangeFeedConfig}), so a slow client never blocks
+ * the committing thread, other clients or unrelated background work.
+ *
+ * <p>A subscriber that falls a full buffer behind is sent a {@code reset} event and disconnected.
+ * The reset carries the current event id. The client refetches the pets it shows, and its EventSource
+ * reconnects from that id.
+ *
+ * <p>Reconnecting clients resume after their {@code Last-Event-ID} from the recent history. If the
+ * history no longer reaches back that far, or the id comes from before a restart, they get a
+ * {@code reset} instead.
+ */
+@Slf4j
+@Component
+public class PetChangeFeed {
+
+    static final String CHANGE_EVENT = "pet-change";
+    static final String RESET_EVENT = "reset";
+
+    private final int bufferSize;
+    private final int historySize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Executor executor;
+    // Event ids are "<epoch>-<sequence>"; the epoch tells ids from before a restart apart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ArrayDeque<Delivery> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private volatile long sequence;
+
+    public PetChangeFeed(@Value("${petstore.change-feed.buffer-size:256}") int bufferSize,
+                         @Value("${petstore.change-feed.history-size:1024}") int historySize,
+                         @Value("${petstore.change-feed.max-subscribers:1000}") int maxSubscribers,
+                         @Value("${petstore.change-feed.timeout:30m}") Duration timeout,
+                         @Qualifier(PetChangeFeedConfig.EXECUTOR_BEAN_NAME) Executor executor) {
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.executor = executor;
+    }
+
+    /**
+     * Opens a stream of the changes committed after {@code lastEventId}, or from now on when it is null.
+     *
+     * @return the emitter, or null if the feed already has its maximum number of subscribers
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (this) {
+            if (subscribers.size() >= maxSubscribers) {
+                return null;
+            }
+            if (lastEventId != null && !lastEventId.equals(eventId(sequence))) {
+                resume(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPetChange(PetChangeEvent change) {
+        synchronized (this) {
+            String id = eventId(sequence + 1);
+            Delivery delivery = new Delivery(id, CHANGE_EVENT, PetFeedEvent.builder()
+                .id(id)
+                .type(change.getType())
+                .petId(change.getPetId())
+                .previousStatus(change.getPreviousStatus())
+                .pet(change.getPet())
+                .build());
+            sequence++;
+            history.addLast(delivery);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(delivery);
+            }
+        }
+        // Sending happens on the executor; scheduling outside the lock keeps publishers from queueing up
+        for (Subscriber subscriber : subscribers) {
+            subscriber.schedule();
+        }
+    }
+
+    public ChangeFeedStats stats() {
+        return ChangeFeedStats.builder()
+            .lastEventId(eventId(sequence))
+            .subscribers(subscribers.size())
+            .published(sequence)
+            .resets(resets.sum())
+            .overflows(overflows.sum())
+            .build();
+    }
+
+    // Caller holds the monitor, so history and sequence cannot move underneath the replay
+    private void resume(Subscriber subscriber, String lastEventId) {
+        long after = parseSequence(lastEventId);
+        Delivery oldest = history.peekFirst();
+        boolean replayable = after >= 0 && after < sequence && sequence - after <= bufferSize
+            && oldest != null && parseSequence(oldest.id()) <= after + 1;
+        if (!replayable) {
+            subscriber.offer(reset());
+            return;
+        }
+        for (Delivery delivery : history) {
+            if (parseSequence(delivery.id()) > after) {
+                subscriber.offer(delivery);
+            }
+        }
+    }
+
+    private Delivery reset() {
+        resets.increment();
+        String id = eventId(sequence);
+        return new Delivery(id, RESET_EVENT, Map.of("lastEventId", id));
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * @return the sequence number of an id from this epoch, or -1 for anything else
+     */
+    private long parseSequence(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Delivery(String id, String name, Object data) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Delivery> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Delivery delivery) {
+            if (!overflowed && !queue.offer(delivery)) {
+                overflowed = true;
+                overflows.increment();
+            }
+        }
+
+        void schedule() {
+            if (closed || (queue.isEmpty() && !overflowed) || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.warn("Change feed executor rejected a delivery, disconnecting subscriber", e);
+                scheduled.set(false);
+                closed = true;
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void drain() {
+            try {
+                Delivery delivery;
+                while (!closed && !overflowed && (delivery = queue.poll()) != null) {
+                    send(delivery);
+                }
+                if (overflowed && !closed) {
+                    queue.clear();
+                    Delivery reset;
+                    synchronized (PetChangeFeed.this) {
+                        reset = reset();
+                    }
+                    send(reset);
+                    close();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed; the container cleans up
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // Catch deliveries offered after the last poll but before the flag was cleared
+            schedule();
+        }
+
+        private void send(Delivery delivery) throws IOException {
+            emitter.send(SseEmitter.event()
+                .id(delivery.id())
+                .name(delivery.name())
+                .data(delivery.data(), MediaType.APPLICATION_JSON));
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
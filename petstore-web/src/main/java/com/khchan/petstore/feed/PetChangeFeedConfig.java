@@ -0,0 +1,47 @@
+package com.khchan.petstore.feed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor that drains change feed subscribers. It is kept apart from the application task executor
+ * so that slow SSE clients cannot hold up work such as pet profile loads, and the reverse.
+ *
+ * <p>Each subscriber has at most one drain queued or running, so a limit equal to the subscriber
+ * limit never rejects a drain.
+ */
+@Configuration
+public class PetChangeFeedConfig {
+
+    static final String EXECUTOR_BEAN_NAME = "petChangeFeedExecutor";
+
+    @Bean(EXECUTOR_BEAN_NAME)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor petChangeFeedExecutor(ThreadPoolTaskExecutorBuilder builder,
+            @Value("${petstore.change-feed.threads:4}") int threads,
+            @Value("${petstore.change-feed.max-subscribers:1000}") int maxSubscribers) {
+        return builder
+            .threadNamePrefix("change-feed-")
+            .corePoolSize(threads)
+            .maxPoolSize(threads)
+            .queueCapacity(maxSubscribers)
+            .build();
+    }
+
+    @Bean(EXECUTOR_BEAN_NAME)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualPetChangeFeedExecutor(SimpleAsyncTaskExecutorBuilder builder,
+            @Value("${petstore.change-feed.max-subscribers:1000}") int maxSubscribers) {
+        return builder
+            .threadNamePrefix("change-feed-")
+            .concurrencyLimit(maxSubscribers)
+            .build();
+    }
+}
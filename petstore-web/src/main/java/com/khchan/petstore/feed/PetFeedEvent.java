@@ -0,0 +1,23 @@
+package com.khchan.petstore.feed;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.service.PetChangeEvent;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Payload of a {@code pet-change} event on the change feed. {@code pet} is absent for removals and
+ * {@code previousStatus} is only present on status transitions.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PetFeedEvent {
+    private String id;
+    private PetChangeEvent.Type type;
+    private Long petId;
+    private Status previousStatus;
+    private Pet pet;
+}
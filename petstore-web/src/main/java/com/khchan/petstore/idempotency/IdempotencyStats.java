@@ -0,0 +1,15 @@
+package com.khchan.petstore.idempotency;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class IdempotencyStats {
+    private long executed;
+    private long replayed;
+    private long inProgress;
+    private long mismatched;
+    private long entries;
+    private long bytes;
+}
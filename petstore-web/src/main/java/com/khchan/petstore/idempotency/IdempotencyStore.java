@@ -0,0 +1,104 @@
+package com.khchan.petstore.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of writes sent with an {@code Idempotency-Key}, bounded by total body size and by age.
+ * A key is claimed before its request runs, so a retry that arrives while the first attempt is still
+ * running sees it in progress instead of running the write a second time.
+ *
+ * <p>Claims are weightless, so size-based eviction only ever drops completed responses. A request
+ * that fails without a response worth replaying releases its claim, letting the client retry.
+ */
+@Component
+public class IdempotencyStore {
+
+    public enum Outcome {
+        /** The caller owns the key and must {@link #complete} or {@link #release} it. */
+        CLAIMED,
+        REPLAY,
+        IN_PROGRESS,
+        /** The key was already used for a request with a different method, path or body. */
+        MISMATCH
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response) {
+    }
+
+    private final Cache<String, Entry> cache;
+    private final ConcurrentMap<String, Entry> entries;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder inProgress = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+
+    public IdempotencyStore(@Value("${petstore.idempotency.max-size:16MB}") DataSize maxSize,
+                            @Value("${petstore.idempotency.expire-after-write:24h}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((String key, Entry entry) -> entry.response == null
+                ? 0
+                : key.length() + entry.fingerprint.length() + entry.response.body().length)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+        this.entries = cache.asMap();
+    }
+
+    /**
+     * Claims {@code key} for a request identified by {@code fingerprint}, unless it is already taken.
+     * Keys are not scoped here; callers include whatever identifies the client in {@code key}.
+     */
+    public Claim claim(String key, String fingerprint) {
+        Entry existing = entries.putIfAbsent(key, new Entry(fingerprint, null));
+        if (existing == null) {
+            executed.increment();
+            return new Claim(Outcome.CLAIMED, null);
+        }
+        if (!existing.fingerprint.equals(fingerprint)) {
+            mismatched.increment();
+            return new Claim(Outcome.MISMATCH, null);
+        }
+        if (existing.response == null) {
+            inProgress.increment();
+            return new Claim(Outcome.IN_PROGRESS, null);
+        }
+        replayed.increment();
+        return new Claim(Outcome.REPLAY, existing.response);
+    }
+
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        entries.computeIfPresent(key, (k, entry) -> entry.response == null && entry.fingerprint.equals(fingerprint)
+            ? new Entry(fingerprint, response)
+            : entry);
+    }
+
+    public void release(String key, String fingerprint) {
+        entries.computeIfPresent(key, (k, entry) -> entry.response == null && entry.fingerprint.equals(fingerprint)
+            ? null
+            : entry);
+    }
+
+    public IdempotencyStats stats() {
+        // Apply pending maintenance so size and weight reflect recent writes
+        cache.cleanUp();
+        return IdempotencyStats.builder()
+            .executed(executed.sum())
+            .replayed(replayed.sum())
+            .inProgress(inProgress.sum())
+            .mismatched(mismatched.sum())
+            .entries(cache.estimatedSize())
+            .bytes(cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+            .build();
+    }
+
+    private record Entry(String fingerprint, StoredResponse response) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.khchan.petstore.idempotency;
+
+/**
+ * The status, content type and body of a completed write, replayed as-is for retries of its key.
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,194 @@
+package com.khchan.petstore.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.Tag;
+import com.khchan.petstore.service.PetCatalogReader;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written serializers for the pet representation, registered with the application's
+ * {@code ObjectMapper}. Every {@code /pets} page, {@code /pet/{id}} body and export line goes through
+ * them, so they write straight to the generator: field names and status values are pre-encoded, and
+ * nothing is introspected or boxed per call. The embedded {@link Category} is read through its getters,
+ * which also works on an uninitialized Hibernate proxy.
+ *
+ * <p>The output is the same as Jackson's default for these classes: declaration order, null pet
+ * fields omitted ({@code NON_NULL}), and null category and tag fields written as {@code null}.
+ * {@code PetJsonSerializersTest} holds them to that. {@link #writeCatalogRow} writes the same
+ * representation for listing rows that never became a {@link Pet}.
+ */
+@JsonComponent
+public class PetJsonSerializers {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString CATEGORY = new SerializedString("category");
+    private static final SerializableString PHOTO_URLS = new SerializedString("photoUrls");
+    private static final SerializableString TAGS = new SerializedString("tags");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString[] STATUS_VALUES = new SerializableString[Status.values().length];
+
+    static {
+        for (Status status : Status.values()) {
+            STATUS_VALUES[status.ordinal()] = new SerializedString(status.name());
+        }
+    }
+
+    public static class PetSerializer extends StdSerializer<Pet> {
+
+        public PetSerializer() {
+            super(Pet.class);
+        }
+
+        @Override
+        public void serialize(Pet pet, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(pet);
+            if (pet.getId() != null) {
+                generator.writeFieldName(ID);
+                generator.writeNumber(pet.getId());
+            }
+            if (pet.getName() != null) {
+                generator.writeFieldName(NAME);
+                generator.writeString(pet.getName());
+            }
+            if (pet.getStatus() != null) {
+                generator.writeFieldName(STATUS);
+                generator.writeString(STATUS_VALUES[pet.getStatus().ordinal()]);
+            }
+            if (pet.getCategory() != null) {
+                generator.writeFieldName(CATEGORY);
+                writeCategory(pet.getCategory(), generator);
+            }
+            if (pet.getPhotoUrls() != null) {
+                generator.writeFieldName(PHOTO_URLS);
+                writeStrings(pet.getPhotoUrls(), generator);
+            }
+            if (pet.getTags() != null) {
+                generator.writeFieldName(TAGS);
+                writeTags(pet.getTags(), generator);
+            }
+            if (pet.getVersion() != null) {
+                generator.writeFieldName(VERSION);
+                generator.writeNumber(pet.getVersion());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    public static class TagSerializer extends StdSerializer<Tag> {
+
+        public TagSerializer() {
+            super(Tag.class);
+        }
+
+        @Override
+        public void serialize(Tag tag, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            writeTag(tag, generator);
+        }
+    }
+
+    /**
+     * Writes a {@link PetCatalogReader} row as a full pet. The photo urls and tags arrive as JSON
+     * rendered by the database and are copied in raw; a pet without any gets an empty array, as it
+     * would from the DTO path.
+     */
+    public static void writeCatalogRow(PetCatalogReader.Row row, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(row.id());
+        if (row.name() != null) {
+            generator.writeFieldName(NAME);
+            generator.writeString(row.name());
+        }
+        if (row.status() != null) {
+            generator.writeFieldName(STATUS);
+            generator.writeString(STATUS_VALUES[row.status().ordinal()]);
+        }
+        if (row.categoryId() != null) {
+            generator.writeFieldName(CATEGORY);
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            generator.writeNumber(row.categoryId().longValue());
+            generator.writeFieldName(NAME);
+            generator.writeString(row.categoryName());
+            generator.writeEndObject();
+        }
+        generator.writeFieldName(PHOTO_URLS);
+        writeRawArray(row.photoUrlsJson(), generator);
+        generator.writeFieldName(TAGS);
+        writeRawArray(row.tagsJson(), generator);
+        if (row.version() != null) {
+            generator.writeFieldName(VERSION);
+            generator.writeNumber(row.version().longValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeCategory(Category category, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(category);
+        generator.writeFieldName(ID);
+        writeNullableNumber(category.getId(), generator);
+        generator.writeFieldName(NAME);
+        generator.writeString(category.getName());
+        generator.writeEndObject();
+    }
+
+    private static void writeTags(List<Tag> tags, JsonGenerator generator) throws IOException {
+        generator.writeStartArray(tags, tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            Tag tag = tags.get(i);
+            if (tag == null) {
+                generator.writeNull();
+            } else {
+                writeTag(tag, generator);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeTag(Tag tag, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(tag);
+        generator.writeFieldName(ID);
+        writeNullableNumber(tag.getId(), generator);
+        generator.writeFieldName(NAME);
+        generator.writeString(tag.getName());
+        generator.writeEndObject();
+    }
+
+    private static void writeStrings(List<String> values, JsonGenerator generator) throws IOException {
+        generator.writeStartArray(values, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            // writeString(String) writes null as a JSON null
+            generator.writeString(values.get(i));
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNullableNumber(Long value, JsonGenerator generator) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    private static void writeRawArray(String json, JsonGenerator generator) throws IOException {
+        if (json == null) {
+            generator.writeStartArray();
+            generator.writeEndArray();
+        } else {
+            generator.writeRawValue(json);
+        }
+    }
+}
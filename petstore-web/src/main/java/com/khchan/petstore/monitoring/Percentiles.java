@@ -0,0 +1,25 @@
+package com.khchan.petstore.monitoring;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+@Getter
+@Builder
+public class Percentiles {
+    private double mean;
+    private long p50;
+    private long p90;
+    private long p99;
+    private long max;
+
+    static Percentiles of(Histogram histogram) {
+        return Percentiles.builder()
+            .mean(histogram.getMean())
+            .p50(histogram.getValueAtPercentile(50))
+            .p90(histogram.getValueAtPercentile(90))
+            .p99(histogram.getValueAtPercentile(99))
+            .max(histogram.getMaxValue())
+            .build();
+    }
+}
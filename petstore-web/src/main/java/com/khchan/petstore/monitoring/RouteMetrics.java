@@ -0,0 +1,56 @@
+package com.khchan.petstore.monitoring;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route histograms of wall time, SQL statement count and JDBC time, recorded since startup.
+ * HdrHistogram keeps percentiles accurate to two significant digits in constant memory per route,
+ * independent of request volume.
+ */
+@Component
+public class RouteMetrics {
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final long MAX_TRACKED_STATEMENTS = 100_000;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, RouteHistograms> routes = new ConcurrentHashMap<>();
+
+    public void record(String route, long wallNanos, int statements, long jdbcNanos) {
+        RouteHistograms histograms = routes.computeIfAbsent(route, key -> new RouteHistograms());
+        histograms.wallMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(wallNanos), MAX_TRACKED_MICROS));
+        histograms.statements.recordValue(Math.min(statements, MAX_TRACKED_STATEMENTS));
+        histograms.jdbcMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(jdbcNanos), MAX_TRACKED_MICROS));
+    }
+
+    public List<RouteStats> snapshot() {
+        List<RouteStats> stats = new ArrayList<>(routes.size());
+        routes.forEach((route, histograms) -> stats.add(RouteStats.builder()
+            .route(route)
+            .count(histograms.wallMicros.getTotalCount())
+            .wallTimeMicros(Percentiles.of(histograms.wallMicros))
+            .sqlStatements(Percentiles.of(histograms.statements))
+            .jdbcTimeMicros(Percentiles.of(histograms.jdbcMicros))
+            .build()));
+        stats.sort((left, right) -> left.getRoute().compareTo(right.getRoute()));
+        return stats;
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    private static class RouteHistograms {
+        final Histogram wallMicros = new ConcurrentHistogram(MAX_TRACKED_MICROS, SIGNIFICANT_DIGITS);
+        final Histogram statements = new ConcurrentHistogram(MAX_TRACKED_STATEMENTS, SIGNIFICANT_DIGITS);
+        final Histogram jdbcMicros = new ConcurrentHistogram(MAX_TRACKED_MICROS, SIGNIFICANT_DIGITS);
+    }
+}
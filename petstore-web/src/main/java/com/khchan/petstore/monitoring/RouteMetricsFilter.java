@@ -0,0 +1,54 @@
+package com.khchan.petstore.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records wall time and the SQL issued by each request against its route pattern
+ * (e.g. {@code GET /pet/{id}}), so a single slow or chatty endpoint stands out. Requests that go
+ * asynchronous (the {@code /pets/stream} export) are skipped because their work happens after this
+ * filter returns, on another thread.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RouteMetricsFilter extends OncePerRequestFilter {
+
+    private final RouteMetrics routeMetrics;
+
+    @Autowired
+    public RouteMetricsFilter(RouteMetrics routeMetrics) {
+        this.routeMetrics = routeMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/metrics/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        SqlRequestScope scope = SqlRequestScope.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlRequestScope.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null && !request.isAsyncStarted()) {
+                routeMetrics.record(request.getMethod() + " " + pattern,
+                    System.nanoTime() - startedAt, scope.getStatements(), scope.getJdbcNanos());
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.khchan.petstore.monitoring;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class RouteStats {
+    private String route;
+    private long count;
+    private Percentiles wallTimeMicros;
+    private Percentiles sqlStatements;
+    private Percentiles jdbcTimeMicros;
+}
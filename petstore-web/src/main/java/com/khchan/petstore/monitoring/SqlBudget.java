@@ -0,0 +1,50 @@
+package com.khchan.petstore.monitoring;
+
+/**
+ * A statement budget entered for a route or service method. Counts are taken from the enclosing
+ * {@link SqlRequestScope}, so statements issued by nested calls count against every budget they run
+ * under.
+ */
+final class SqlBudget {
+
+    private final String label;
+    private final int limit;
+    private final int startedAt;
+    private final boolean rejecting;
+    private volatile boolean rejected;
+
+    SqlBudget(String label, int limit, int startedAt, boolean rejecting) {
+        this.label = label;
+        this.limit = limit;
+        this.startedAt = startedAt;
+        this.rejecting = rejecting;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getStartedAt() {
+        return startedAt;
+    }
+
+    boolean isRejecting() {
+        return rejecting;
+    }
+
+    boolean isRejected() {
+        return rejected;
+    }
+
+    void markRejected() {
+        rejected = true;
+    }
+
+    int used(int statements) {
+        return statements - startedAt;
+    }
+}
@@ -0,0 +1,37 @@
+package com.khchan.petstore.monitoring;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+public class SqlBudgetConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static SqlBudgetEnforcer sqlBudgetEnforcer(SqlBudgetProperties properties) {
+        return new SqlBudgetEnforcer(properties);
+    }
+
+    /**
+     * Puts every {@code @Service} method under its configured budget.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor sqlBudgetAdvisor(SqlBudgetEnforcer sqlBudgetEnforcer) {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), sqlBudgetEnforcer);
+    }
+
+    @Bean
+    public MappedInterceptor sqlBudgetInterceptor(SqlBudgetEnforcer sqlBudgetEnforcer) {
+        return new MappedInterceptor(null, new SqlBudgetInterceptor(sqlBudgetEnforcer));
+    }
+}
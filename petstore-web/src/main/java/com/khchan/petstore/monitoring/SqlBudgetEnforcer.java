@@ -0,0 +1,115 @@
+package com.khchan.petstore.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies {@link SqlBudgetProperties} to routes (through {@link SqlBudgetInterceptor}) and to
+ * {@code @Service} methods (as the advice of a pointcut advisor). A budget is checked against the
+ * statements counted by the current {@link SqlRequestScope}, so the live cost is one counter
+ * comparison per statement and one map lookup per call.
+ */
+@Slf4j
+public class SqlBudgetEnforcer implements MethodInterceptor {
+
+    private static final int NO_BUDGET = -1;
+
+    private final SqlBudgetProperties properties;
+    private final Map<Method, Integer> serviceBudgets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> violations = new ConcurrentHashMap<>();
+
+    public SqlBudgetEnforcer(SqlBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        int limit = serviceBudgets.computeIfAbsent(invocation.getMethod(),
+            method -> properties.getServices().getOrDefault(serviceLabel(invocation), NO_BUDGET));
+        if (limit == NO_BUDGET || !properties.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        // Service calls outside a request (startup, work not submitted by a request) are budgeted on their own
+        boolean ownsScope = SqlRequestScope.current() == null;
+        SqlRequestScope scope = ownsScope ? SqlRequestScope.open() : SqlRequestScope.current();
+        SqlBudget budget = enter(scope, serviceLabel(invocation), limit);
+        try {
+            return invocation.proceed();
+        } finally {
+            exit(scope, budget);
+            if (ownsScope) {
+                SqlRequestScope.close();
+            }
+        }
+    }
+
+    /**
+     * @return counts of budget violations by route or service method since startup
+     */
+    public Map<String, Long> getViolations() {
+        Map<String, Long> counts = new TreeMap<>();
+        violations.forEach((label, count) -> counts.put(label, count.sum()));
+        return counts;
+    }
+
+    SqlBudget enterRoute(SqlRequestScope scope, String method, String pattern) {
+        String route = method + " " + pattern;
+        Integer limit = properties.getRoutes().get(route);
+        if (limit == null) {
+            limit = properties.getRoutes().get(pattern);
+        }
+        if (limit == null && properties.getDefaultRouteBudget() > 0) {
+            limit = properties.getDefaultRouteBudget();
+        }
+        return limit == null || !properties.isEnabled() ? null : enter(scope, route, limit);
+    }
+
+    SqlBudget enter(SqlRequestScope scope, String label, int limit) {
+        if (properties.getMode() == SqlBudgetMode.SAMPLE
+            && ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return null;
+        }
+        SqlBudget budget = new SqlBudget(label, limit, scope.getStatements(),
+            properties.getMode() == SqlBudgetMode.REJECT);
+        scope.enter(budget);
+        return budget;
+    }
+
+    void exit(SqlRequestScope scope, SqlBudget budget) {
+        if (budget == null) {
+            return;
+        }
+        scope.exit(budget);
+        int used = budget.used(scope.getStatements());
+        if (budget.isRejected()) {
+            record(budget);
+            log.warn("Rejected {} after {} SQL statements (budget {}); last statement: {}",
+                budget.getLabel(), used, budget.getLimit(), scope.getLastSql());
+        } else if (used > budget.getLimit()) {
+            record(budget);
+            log.warn("{} ran {} SQL statements (budget {}); last statement: {}",
+                budget.getLabel(), used, budget.getLimit(), scope.getLastSql());
+        }
+    }
+
+    private void record(SqlBudget budget) {
+        violations.computeIfAbsent(budget.getLabel(), label -> new LongAdder()).increment();
+    }
+
+    private static String serviceLabel(MethodInvocation invocation) {
+        Class<?> type = invocation.getThis() != null
+            ? ClassUtils.getUserClass(invocation.getThis())
+            : invocation.getMethod().getDeclaringClass();
+        return type.getSimpleName() + "." + invocation.getMethod().getName();
+    }
+}
@@ -0,0 +1,13 @@
+package com.khchan.petstore.monitoring;
+
+/**
+ * Thrown from the JDBC layer, before the statement runs, when a budget in
+ * {@link SqlBudgetMode#REJECT} mode would be exceeded.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    SqlBudgetExceededException(SqlBudget budget, int attempted) {
+        super("SQL budget exceeded for " + budget.getLabel() + ": statement " + attempted
+            + " of at most " + budget.getLimit());
+    }
+}
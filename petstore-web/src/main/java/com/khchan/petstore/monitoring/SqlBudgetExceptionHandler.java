@@ -0,0 +1,16 @@
+package com.khchan.petstore.monitoring;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class SqlBudgetExceptionHandler {
+
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public String handleBudgetExceeded(SqlBudgetExceededException e) {
+        return e.getMessage();
+    }
+}
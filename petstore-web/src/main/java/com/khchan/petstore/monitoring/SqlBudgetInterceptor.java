@@ -0,0 +1,43 @@
+package com.khchan.petstore.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Enters the route's statement budget once the handler pattern is known and settles it when the
+ * request completes.
+ */
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    private static final String BUDGET_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".budget";
+
+    private final SqlBudgetEnforcer enforcer;
+
+    public SqlBudgetInterceptor(SqlBudgetEnforcer enforcer) {
+        this.enforcer = enforcer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlRequestScope scope = SqlRequestScope.current();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (scope != null && pattern != null) {
+            SqlBudget budget = enforcer.enterRoute(scope, request.getMethod(), pattern.toString());
+            if (budget != null) {
+                request.setAttribute(BUDGET_ATTRIBUTE, budget);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlRequestScope scope = SqlRequestScope.current();
+        if (scope != null && request.getAttribute(BUDGET_ATTRIBUTE) instanceof SqlBudget budget) {
+            enforcer.exit(scope, budget);
+        }
+    }
+}
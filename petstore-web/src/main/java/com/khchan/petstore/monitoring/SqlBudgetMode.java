@@ -0,0 +1,16 @@
+package com.khchan.petstore.monitoring;
+
+public enum SqlBudgetMode {
+    /**
+     * Log every violation.
+     */
+    LOG,
+    /**
+     * Check only a sampled fraction of requests ({@code sample-rate}) and log their violations.
+     */
+    SAMPLE,
+    /**
+     * Fail the statement that would exceed the budget, and log it.
+     */
+    REJECT
+}
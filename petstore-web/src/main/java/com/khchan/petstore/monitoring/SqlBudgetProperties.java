@@ -0,0 +1,28 @@
+package com.khchan.petstore.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statement budgets. Route keys are handler patterns, optionally prefixed with the HTTP method:
+ * {@code routes[/pet/{id}]=5} or {@code routes[GET\ /pets]=3}. Service keys are
+ * {@code SimpleClassName.method}: {@code services[PetService.findPetsByIds]=3}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "petstore.sql-budget")
+public class SqlBudgetProperties {
+    private boolean enabled = true;
+    private SqlBudgetMode mode = SqlBudgetMode.LOG;
+    private double sampleRate = 0.01;
+    /**
+     * Budget for routes without their own entry; 0 disables it.
+     */
+    private int defaultRouteBudget;
+    private Map<String, Integer> routes = new HashMap<>();
+    private Map<String, Integer> services = new HashMap<>();
+}
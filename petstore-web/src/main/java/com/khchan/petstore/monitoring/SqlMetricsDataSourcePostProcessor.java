@@ -0,0 +1,56 @@
+package com.khchan.petstore.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps every DataSource so each statement is counted and timed against the
+ * {@link SqlRequestScope} of the request that issued it. This is the production counterpart of the
+ * test-only {@code DataSourceProxyConfig}: counts are per request instead of global.
+ */
+@Component
+public class SqlMetricsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(new RequestScopedQueryListener())
+                .build();
+        }
+        return bean;
+    }
+
+    static class RequestScopedQueryListener implements QueryExecutionListener {
+
+        // The start time travels with the statement, since a scope can be shared by several threads
+        private static final String STARTED_AT = SqlRequestScope.class.getName() + ".startedAt";
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlRequestScope scope = SqlRequestScope.current();
+            if (scope != null) {
+                execInfo.addCustomValue(STARTED_AT,
+                    scope.queryStarted(queryInfoList.isEmpty() ? null : queryInfoList.get(0).getQuery()));
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlRequestScope scope = SqlRequestScope.current();
+            Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+            if (scope != null && startedAt != null) {
+                scope.queryFinished(queryInfoList.size(), startedAt);
+            }
+        }
+    }
+}
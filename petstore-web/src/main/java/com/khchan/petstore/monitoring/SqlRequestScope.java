@@ -0,0 +1,100 @@
+package com.khchan.petstore.monitoring;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL tally of the request being handled on the current thread. Opened and closed by
+ * {@link RouteMetricsFilter} (or by {@link SqlBudgetEnforcer} for service calls outside a request);
+ * fed by the listener {@link SqlMetricsDataSourcePostProcessor} puts on the DataSource. Statements
+ * run on threads without an open scope are not attributed to anything.
+ *
+ * <p>Work a request hands to an executor stays part of it: {@link SqlRequestScopeTaskDecorator}
+ * binds the submitting thread's scope on the worker for the duration of the task. A scope may
+ * therefore count statements from several threads at once, so its counters are atomic.
+ *
+ * <p>The scope also carries the stack of {@link SqlBudget}s entered for the request, so a budget set
+ * to reject can stop the offending statement before it runs, whichever thread issues it.
+ */
+public final class SqlRequestScope {
+
+    private static final ThreadLocal<SqlRequestScope> CURRENT = new ThreadLocal<>();
+
+    private final Deque<SqlBudget> budgets = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong jdbcNanos = new AtomicLong();
+    private volatile String lastSql;
+
+    private SqlRequestScope() {
+    }
+
+    static SqlRequestScope open() {
+        SqlRequestScope scope = new SqlRequestScope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Makes {@code scope} the current one on this thread, or clears it when null.
+     */
+    static void bind(SqlRequestScope scope) {
+        if (scope == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope);
+        }
+    }
+
+    /**
+     * @return the scope of the current request, or null if the current thread is not serving one
+     */
+    public static SqlRequestScope current() {
+        return CURRENT.get();
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos.get();
+    }
+
+    String getLastSql() {
+        return lastSql;
+    }
+
+    void enter(SqlBudget budget) {
+        budgets.push(budget);
+    }
+
+    void exit(SqlBudget budget) {
+        budgets.remove(budget);
+    }
+
+    /**
+     * @return when the statement started, to be passed back to {@link #queryFinished}
+     */
+    long queryStarted(String sql) {
+        int next = statements.get() + 1;
+        for (SqlBudget budget : budgets) {
+            if (budget.isRejecting() && budget.used(next) > budget.getLimit()) {
+                budget.markRejected();
+                throw new SqlBudgetExceededException(budget, next - budget.getStartedAt());
+            }
+        }
+        lastSql = sql;
+        return System.nanoTime();
+    }
+
+    void queryFinished(int statementCount, long startedAt) {
+        statements.addAndGet(statementCount);
+        jdbcNanos.addAndGet(System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,31 @@
+package com.khchan.petstore.monitoring;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs tasks under the {@link SqlRequestScope} of the thread that submitted them, so statements a
+ * request issues through an executor (the concurrent reads of {@code GET /pet/{id}/full}) show up in
+ * its route metrics and count against its SQL budgets. Spring Boot applies the single
+ * {@code TaskDecorator} bean to the executors it builds, the application task executor included.
+ */
+@Component
+public class SqlRequestScopeTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        SqlRequestScope scope = SqlRequestScope.current();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            SqlRequestScope previous = SqlRequestScope.current();
+            SqlRequestScope.bind(scope);
+            try {
+                task.run();
+            } finally {
+                SqlRequestScope.bind(previous);
+            }
+        };
+    }
+}
@@ -127,16 +127,17 @@ values(4, 4, 3, '2024-07-25 11:00:00', 'New patient exam', 'First visit for this
 insert into appointments (id, pet_id, veterinarian_id, date_time, reason, notes, status)
 values(5, 5, 3, '2024-07-18 15:00:00', 'Sprain follow-up', 'Check recovery from injury', 'CONFIRMED');
 
--- Reset identity sequences to avoid conflicts with manually-inserted IDs
+-- Reset identity columns and sequences to avoid conflicts with manually-inserted IDs
 ALTER TABLE categories ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE breeds ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE owners ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE clinics ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE veterinarians ALTER COLUMN id RESTART WITH 100;
-ALTER TABLE pets ALTER COLUMN id RESTART WITH 100;
+-- Pooled sequences (allocation size 50) hand out the 50 ids below the value they read, so 150 yields ids from 101
+ALTER SEQUENCE pets_seq RESTART WITH 150;
 ALTER TABLE pet_insurance ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE medical_records ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE vaccinations ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE appointments ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE media ALTER COLUMN id RESTART WITH 100;
-ALTER TABLE tags ALTER COLUMN id RESTART WITH 100;
\ No newline at end of file
+ALTER SEQUENCE tags_seq RESTART WITH 100;
\ No newline at end of file
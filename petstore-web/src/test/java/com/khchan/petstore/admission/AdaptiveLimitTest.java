@@ -0,0 +1,75 @@
+package com.khchan.petstore.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    public void rejectsOnceTheLimitIsInUse() {
+        AdaptiveLimit limit = limit(2, 1, 10);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release(FAST, false);
+        assertTrue(limit.tryAcquire());
+        assertEquals(1, limit.stats().getRejected());
+    }
+
+    @Test
+    public void growsAdditivelyWhileFastAndBusy() {
+        AdaptiveLimit limit = limit(4, 1, 5);
+        for (int i = 0; i < 40; i++) {
+            while (limit.tryAcquire()) {
+                // Fill the limit so growth is earned under load
+            }
+            limit.release(FAST, false);
+        }
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void backsOffMultiplicativelyOnSlowOrFailedRequests() {
+        AdaptiveLimit limit = limit(10, 2, 20);
+
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertEquals(9, limit.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, true);
+        }
+        assertEquals(2, limit.getLimit());
+        assertEquals(51, limit.stats().getBackoffs());
+    }
+
+    @Test
+    public void idleLimitDoesNotGrow() {
+        AdaptiveLimit limit = limit(10, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, false);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    private static AdaptiveLimit limit(int initial, int min, int max) {
+        AdmissionProperties.Limit properties = new AdmissionProperties.Limit();
+        properties.setInitialLimit(initial);
+        properties.setMinLimit(min);
+        properties.setMaxLimit(max);
+        properties.setTargetLatency(Duration.ofMillis(100));
+        return new AdaptiveLimit(properties);
+    }
+}
@@ -0,0 +1,38 @@
+package com.khchan.petstore.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionInterceptorTest {
+
+    @Test
+    public void readsAndWritesHaveSeparateLimits() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getWrites().setInitialLimit(1);
+        properties.getWrites().setMinLimit(1);
+        PetAdmissionControl admissionControl = new PetAdmissionControl(properties, null);
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(admissionControl, Duration.ofSeconds(2));
+
+        MockHttpServletRequest firstWrite = new MockHttpServletRequest("POST", "/pet");
+        assertTrue(interceptor.preHandle(firstWrite, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest("PUT", "/pet"), rejected, null));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/pets"), new MockHttpServletResponse(), null));
+
+        interceptor.afterCompletion(firstWrite, new MockHttpServletResponse(), null, null);
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("PUT", "/pet"), new MockHttpServletResponse(), null));
+
+        assertEquals(1, admissionControl.stats().get("writes").getRejected());
+        assertEquals(1, admissionControl.stats().get("reads").getInFlight());
+    }
+}
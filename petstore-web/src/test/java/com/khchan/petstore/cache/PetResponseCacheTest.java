@@ -0,0 +1,117 @@
+package com.khchan.petstore.cache;
+
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.service.PetService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class PetResponseCacheTest {
+
+    @Autowired
+    private PetResponseCache responseCache;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Pet pet;
+
+    @BeforeEach
+    public void createPet() {
+        pet = petService.savePet(Pet.builder().name("Cached").status(Status.AVAILABLE).build());
+    }
+
+    @Test
+    public void committedWriteEvictsPetAndPages() {
+        cache(pet.getId());
+
+        petService.savePet(Pet.builder().id(pet.getId()).name("Renamed").status(Status.SOLD).build());
+
+        assertNull(responseCache.getPet(pet.getId()));
+        assertNull(responseCache.getPage(null, 5));
+    }
+
+    @Test
+    public void batchWriteKeepsOtherPetsButEvictsPages() {
+        cache(pet.getId());
+
+        List<Pet> created = petService.savePets(List.of(
+            Pet.builder().name("First").status(Status.AVAILABLE).build(),
+            Pet.builder().name("Second").status(Status.AVAILABLE).build()));
+        try {
+            assertNotNull(responseCache.getPet(pet.getId()));
+            assertNull(responseCache.getPage(null, 5));
+        } finally {
+            created.forEach(saved -> petService.removePet(saved.getId()));
+        }
+    }
+
+    @Test
+    public void rolledBackWriteKeepsEntries() {
+        cache(pet.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            petService.removePet(pet.getId());
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(responseCache.getPet(pet.getId()));
+        assertNotNull(responseCache.getPage(null, 5));
+    }
+
+    @Test
+    public void loadRacingWithWriteIsNotCached() {
+        long loadedAt = responseCache.generation();
+
+        petService.removePet(pet.getId());
+        responseCache.putPet(pet.getId(), loadedAt, response());
+
+        assertNull(responseCache.getPet(pet.getId()));
+    }
+
+    @Test
+    public void equivalentPageArgumentsShareEntry() {
+        responseCache.putPage(null, 10_000, responseCache.generation(), response());
+
+        // Both limits clamp to the maximum page size
+        assertNotNull(responseCache.getPage(null, 100));
+        assertThrows(IllegalArgumentException.class, () -> responseCache.getPage("not-a-cursor", null));
+    }
+
+    @Test
+    public void statsCountHitsAndMisses() {
+        cache(pet.getId());
+        ResponseCacheStats before = responseCache.stats();
+
+        responseCache.getPet(pet.getId());
+        responseCache.getPet(-1L);
+
+        ResponseCacheStats after = responseCache.stats();
+        assertEquals(before.getHits() + 1, after.getHits());
+        assertEquals(before.getMisses() + 1, after.getMisses());
+        assertTrue(after.getBytes() > 0);
+    }
+
+    private void cache(Long id) {
+        long generation = responseCache.generation();
+        responseCache.putPet(id, generation, response());
+        responseCache.putPage(null, 5, generation, response());
+        assertNotNull(responseCache.getPet(id));
+    }
+
+    private static CachedResponse response() {
+        return new CachedResponse("{\"id\":1}".getBytes(), "\"pet-1-v0\"");
+    }
+}
@@ -0,0 +1,122 @@
+package com.khchan.petstore.controller;
+
+import com.khchan.petstore.admission.AdmissionStats;
+import com.khchan.petstore.admission.PetAdmissionControl;
+import com.khchan.petstore.cache.PetResponseCache;
+import com.khchan.petstore.cache.ResponseCacheStats;
+import com.khchan.petstore.dto.CoalescingStats;
+import com.khchan.petstore.feed.ChangeFeedStats;
+import com.khchan.petstore.feed.PetChangeFeed;
+import com.khchan.petstore.idempotency.IdempotencyStats;
+import com.khchan.petstore.idempotency.IdempotencyStore;
+import com.khchan.petstore.monitoring.RouteMetrics;
+import com.khchan.petstore.monitoring.SqlBudgetEnforcer;
+import com.khchan.petstore.service.PetService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = MetricsController.class,
+    excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.khchan\\.petstore\\.repository\\..*"))
+public class MetricsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PetService petService;
+
+    @MockitoBean
+    private PetResponseCache responseCache;
+
+    @MockitoBean
+    private RouteMetrics routeMetrics;
+
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockitoBean
+    private PetAdmissionControl admissionControl;
+
+    @MockitoBean
+    private SqlBudgetEnforcer sqlBudgetEnforcer;
+
+    @MockitoBean
+    private PetChangeFeed changeFeed;
+
+    @Test
+    public void petLookups() throws Exception {
+        doReturn(CoalescingStats.builder().loads(3).coalesced(40).inFlight(1).build())
+            .when(petService).getPetLookupStats();
+
+        mockMvc.perform(get("/metrics/pet-lookups"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.loads").value(3))
+            .andExpect(jsonPath("$.coalesced").value(40))
+            .andExpect(jsonPath("$.inFlight").value(1));
+    }
+
+    @Test
+    public void responseCache() throws Exception {
+        doReturn(ResponseCacheStats.builder().hits(9).misses(1).entries(1).bytes(120).build())
+            .when(responseCache).stats();
+
+        mockMvc.perform(get("/metrics/response-cache"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hits").value(9))
+            .andExpect(jsonPath("$.misses").value(1))
+            .andExpect(jsonPath("$.bytes").value(120));
+    }
+
+    @Test
+    public void sqlBudgetViolations() throws Exception {
+        doReturn(Map.of("GET /pets", 4L)).when(sqlBudgetEnforcer).getViolations();
+
+        mockMvc.perform(get("/metrics/sql-budget"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$['GET /pets']").value(4));
+    }
+
+    @Test
+    public void changeFeed() throws Exception {
+        doReturn(ChangeFeedStats.builder().lastEventId("x-12").subscribers(3).published(12).overflows(1).build())
+            .when(changeFeed).stats();
+
+        mockMvc.perform(get("/metrics/change-feed"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.subscribers").value(3))
+            .andExpect(jsonPath("$.overflows").value(1));
+    }
+
+    @Test
+    public void idempotency() throws Exception {
+        doReturn(IdempotencyStats.builder().executed(20).replayed(3).mismatched(1).entries(20).build())
+            .when(idempotencyStore).stats();
+
+        mockMvc.perform(get("/metrics/idempotency"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.executed").value(20))
+            .andExpect(jsonPath("$.replayed").value(3));
+    }
+
+    @Test
+    public void admission() throws Exception {
+        doReturn(Map.of("reads", AdmissionStats.builder().limit(48).inFlight(3).admitted(900).rejected(12).build()))
+            .when(admissionControl).stats();
+
+        mockMvc.perform(get("/metrics/admission"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.reads.limit").value(48))
+            .andExpect(jsonPath("$.reads.rejected").value(12));
+    }
+}
@@ -0,0 +1,70 @@
+package com.khchan.petstore.controller;
+
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.OwnerPetSummary;
+import com.khchan.petstore.dto.OwnerSummary;
+import com.khchan.petstore.idempotency.IdempotencyStore;
+import com.khchan.petstore.monitoring.RouteMetrics;
+import com.khchan.petstore.service.OwnerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = OwnerController.class,
+    excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.khchan\\.petstore\\.repository\\..*"))
+public class OwnerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OwnerService ownerService;
+
+    @MockitoBean
+    private RouteMetrics routeMetrics;
+
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    @Test
+    public void ownerSummary() throws Exception {
+        OwnerSummary summary = OwnerSummary.builder()
+            .id(1L)
+            .firstName("Alice")
+            .pets(List.of(OwnerPetSummary.builder()
+                .id(1L)
+                .name("Fluffy")
+                .status(Status.AVAILABLE)
+                .nextVaccinationDue(LocalDate.of(2025, 1, 15))
+                .build()))
+            .build();
+        doReturn(Optional.of(summary)).when(ownerService).findOwnerSummary(1L);
+
+        mockMvc.perform(get("/owners/{id}/summary", 1L))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.firstName").value("Alice"))
+            .andExpect(jsonPath("$.pets[0].name").value("Fluffy"))
+            .andExpect(jsonPath("$.pets[0].nextVaccinationDue").value("2025-01-15"))
+            .andExpect(jsonPath("$.pets[0].latestAppointment").doesNotExist());
+    }
+
+    @Test
+    public void unknownOwnerIsNotFound() throws Exception {
+        doReturn(Optional.empty()).when(ownerService).findOwnerSummary(9L);
+
+        mockMvc.perform(get("/owners/{id}/summary", 9L))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -1,30 +1,60 @@
 package com.khchan.petstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khchan.petstore.cache.CachedResponse;
+import com.khchan.petstore.cache.PetResponseCache;
 import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.MedicalRecordSummary;
 import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetLookupResult;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.dto.PetProfile;
+import com.khchan.petstore.dto.PetSearchFilter;
+import com.khchan.petstore.dto.PetSuggestion;
+import com.khchan.petstore.idempotency.IdempotencyFilter;
+import com.khchan.petstore.idempotency.IdempotencyStore;
+import com.khchan.petstore.monitoring.RouteMetrics;
+import com.khchan.petstore.service.PetCatalogReader;
+import com.khchan.petstore.service.PetField;
+import com.khchan.petstore.service.PetProfileService;
 import com.khchan.petstore.service.PetService;
+import com.khchan.petstore.service.PetTextSearch;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = PetController.class,
     excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.khchan\\.petstore\\.repository\\..*"))
+@Import(IdempotencyStore.class)
 public class PetControllerTest {
 
     @Autowired
@@ -36,38 +66,300 @@ public class PetControllerTest {
     @MockitoBean
     private PetService petService;
 
+    @MockitoBean
+    private PetCatalogReader catalogReader;
+
+    @MockitoBean
+    private PetTextSearch textSearch;
+
+    @MockitoBean
+    private PetProfileService profileService;
+
+    @MockitoBean
+    private PetResponseCache responseCache;
+
+    @MockitoBean
+    private RouteMetrics routeMetrics;
+
     @Test
-    public void findAllPets() throws Exception {
-        List<Pet> pets = Arrays.asList(
-            createPet(1L, "Fluffy"),
-            createPet(2L, "Spot")
-        );
-        doReturn(pets).when(petService).findAllPets();
+    public void findPets() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PetCatalogReader.Row> rows = invocation.getArgument(2);
+            rows.accept(new PetCatalogReader.Row(1L, 3L, "Fluffy", Status.AVAILABLE, 1L, "Cats",
+                "[\"http://imgur.com/1\"]", "[{\"id\":1,\"name\":\"cute\"}]"));
+            rows.accept(new PetCatalogReader.Row(2L, 0L, "Spot", Status.SOLD, null, null, null, null));
+            return new PetCatalogReader.Page("cursor", "abc");
+        }).when(catalogReader).readPage(eq("start"), eq(2), any());
 
-        mockMvc.perform(get("/pets"))
+        mockMvc.perform(get("/pets").param("limit", "2").param("after", "start"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"abc\""))
+            .andExpect(jsonPath("$.items[0].id").value(1))
+            .andExpect(jsonPath("$.items[0].name").value("Fluffy"))
+            .andExpect(jsonPath("$.items[0].category.name").value("Cats"))
+            .andExpect(jsonPath("$.items[0].photoUrls[0]").value("http://imgur.com/1"))
+            .andExpect(jsonPath("$.items[0].tags[0].name").value("cute"))
+            .andExpect(jsonPath("$.items[0].version").value(3))
+            .andExpect(jsonPath("$.items[1].id").value(2))
+            .andExpect(jsonPath("$.items[1].status").value("SOLD"))
+            .andExpect(jsonPath("$.items[1].category").doesNotExist())
+            .andExpect(jsonPath("$.items[1].tags").isEmpty())
+            .andExpect(jsonPath("$.nextCursor").value("cursor"));
+
+        verify(petService, never()).findPets(any(), any(), any());
+    }
+
+    @Test
+    public void findPetsNotModified() throws Exception {
+        doReturn("abc").when(petService).findPageFingerprint(isNull(), isNull());
+
+        mockMvc.perform(get("/pets").header(HttpHeaders.IF_NONE_MATCH, "W/\"abc\""))
+            .andExpect(status().isNotModified());
+
+        verify(petService, never()).findPets(any(), any(), any());
+        verify(catalogReader, never()).readPage(any(), any(), any());
+    }
+
+    @Test
+    public void findPetsWithInvalidCursor() throws Exception {
+        doThrow(new IllegalArgumentException("Invalid cursor: bogus")).when(catalogReader).readPage(eq("bogus"), isNull(), any());
+
+        mockMvc.perform(get("/pets").param("after", "bogus"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findPetsWithSparseFields() throws Exception {
+        Set<PetField> fields = PetField.parse("name");
+        PetPage page = PetPage.builder()
+            .items(List.of(Pet.builder().id(1L).version(0L).name("Fluffy").build()))
+            .build();
+        doReturn(page).when(petService).findPets(isNull(), isNull(), eq(fields));
+        doReturn("abc").when(petService).fingerprint(eq(page));
+
+        mockMvc.perform(get("/pets").param("fields", "name"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"abc-id.name.version\""))
+            .andExpect(jsonPath("$.items[0].name").value("Fluffy"))
+            .andExpect(jsonPath("$.items[0].status").doesNotExist())
+            .andExpect(jsonPath("$.items[0].tags").doesNotExist());
+    }
+
+    @Test
+    public void findPetsWithUnknownField() throws Exception {
+        mockMvc.perform(get("/pets").param("fields", "name,owner"))
+            .andExpect(status().isBadRequest());
+
+        verify(petService, never()).findPets(any(), any(), any());
+    }
+
+    @Test
+    public void findPetsByIds() throws Exception {
+        doReturn(List.of(
+            PetLookupResult.builder().id(2L).found(true).pet(createPet(2L, "Spot")).build(),
+            PetLookupResult.builder().id(99L).found(false).build()
+        )).when(petService).findPetsByIds(eq(List.of(2L, 99L)));
+
+        mockMvc.perform(get("/pets").param("ids", "2,99"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(2))
+            .andExpect(jsonPath("$[0].found").value(true))
+            .andExpect(jsonPath("$[0].pet.name").value("Spot"))
+            .andExpect(jsonPath("$[1].id").value(99))
+            .andExpect(jsonPath("$[1].found").value(false))
+            .andExpect(jsonPath("$[1].pet").doesNotExist());
+
+        verify(petService, never()).findPets(any(), any(), any());
+    }
+
+    @Test
+    public void searchPets() throws Exception {
+        PetPage page = PetPage.builder()
+            .items(List.of(createPet(3L, "Cthulu")))
+            .nextCursor("next")
+            .build();
+        doReturn(page).when(petService).searchPets(argThat((PetSearchFilter filter) ->
+            filter.getStatus() == Status.AVAILABLE && Long.valueOf(2L).equals(filter.getCategoryId())
+                && "good with kids".equals(filter.getTag()) && filter.getOwnerId() == null),
+            eq("-name"), isNull(), eq(10));
+
+        mockMvc.perform(get("/pets/search")
+                .param("status", "AVAILABLE")
+                .param("categoryId", "2")
+                .param("tag", "good with kids")
+                .param("sort", "-name")
+                .param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].name").value("Cthulu"))
+            .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    public void searchPetsWithUnknownSort() throws Exception {
+        doThrow(new IllegalArgumentException("Unknown sort: age"))
+            .when(petService).searchPets(any(), eq("age"), isNull(), isNull());
+
+        mockMvc.perform(get("/pets/search").param("sort", "age"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void suggestPets() throws Exception {
+        doReturn(List.of(PetSuggestion.builder().id(1L).name("Fluffy").score(6f).build()))
+            .when(textSearch).suggest(eq("fluf"), isNull());
+
+        mockMvc.perform(get("/pets/suggest").param("q", "fluf"))
+            .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].id").value(1))
-            .andExpect(jsonPath("$[0].name").value("Fluffy"))
-            .andExpect(jsonPath("$[1].id").value(2))
-            .andExpect(jsonPath("$[1].name").value("Spot"));
+            .andExpect(jsonPath("$[0].name").value("Fluffy"));
+    }
+
+    @Test
+    public void streamPets() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Pet> sink = invocation.getArgument(0);
+            sink.accept(createPet(1L, "Fluffy"));
+            sink.accept(createPet(2L, "Spot"));
+            return null;
+        }).when(petService).streamPets(any());
+
+        MvcResult result = mockMvc.perform(get("/pets/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
 
-        verify(petService).findAllPets();
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Fluffy", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("Spot", objectMapper.readTree(lines[1]).get("name").asText());
     }
 
     @Test
     public void findPet() throws Exception {
         Long petId = 1L;
         Pet pet = createPet(petId, "Fluffy");
-        doReturn(pet).when(petService).findPet(eq(petId));
+        pet.setVersion(3L);
+        doReturn(pet).when(petService).findPet(eq(petId), eq(PetField.ALL));
 
         mockMvc.perform(get("/pet/{id}", petId))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"pet-1-v3\""))
             .andExpect(jsonPath("$.id").value(1))
             .andExpect(jsonPath("$.name").value("Fluffy"));
 
-        verify(petService).findPet(eq(petId));
+        verify(petService).findPet(eq(petId), eq(PetField.ALL));
+    }
+
+    @Test
+    public void findPetCachesSerializedResponse() throws Exception {
+        Pet pet = createPet(1L, "Fluffy");
+        pet.setVersion(3L);
+        doReturn(7L).when(responseCache).generation();
+        doReturn(pet).when(petService).findPet(eq(1L), eq(PetField.ALL));
+
+        mockMvc.perform(get("/pet/{id}", 1L))
+            .andExpect(status().isOk());
+
+        verify(responseCache).putPet(eq(1L), eq(7L), argThat(cached ->
+            cached.eTag().equals("\"pet-1-v3\"") && new String(cached.body()).contains("Fluffy")));
+    }
+
+    @Test
+    public void findPetServedFromCache() throws Exception {
+        doReturn(new CachedResponse("{\"id\":1,\"name\":\"Cached\"}".getBytes(), "\"pet-1-v3\""))
+            .when(responseCache).getPet(eq(1L));
+
+        mockMvc.perform(get("/pet/{id}", 1L))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"pet-1-v3\""))
+            .andExpect(jsonPath("$.name").value("Cached"));
+
+        mockMvc.perform(get("/pet/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"pet-1-v3\""))
+            .andExpect(status().isNotModified());
+
+        verify(petService, never()).findPet(any(), any());
+        verify(petService, never()).findPetVersion(any());
+    }
+
+    @Test
+    public void findPetNotModified() throws Exception {
+        Long petId = 1L;
+        doReturn(Optional.of(3L)).when(petService).findPetVersion(eq(petId));
+
+        mockMvc.perform(get("/pet/{id}", petId).header(HttpHeaders.IF_NONE_MATCH, "\"pet-1-v3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"pet-1-v3\""));
+
+        verify(petService, never()).findPet(any(), any());
+    }
+
+    @Test
+    public void findPetWithStaleETag() throws Exception {
+        Long petId = 1L;
+        Pet pet = createPet(petId, "Fluffy");
+        pet.setVersion(4L);
+        doReturn(Optional.of(4L)).when(petService).findPetVersion(eq(petId));
+        doReturn(pet).when(petService).findPet(eq(petId), eq(PetField.ALL));
+
+        mockMvc.perform(get("/pet/{id}", petId).header(HttpHeaders.IF_NONE_MATCH, "\"pet-1-v3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"pet-1-v4\""));
+    }
+
+    @Test
+    public void findPetWithSparseFields() throws Exception {
+        Long petId = 1L;
+        Set<PetField> fields = PetField.parse("status,tags");
+        Pet pet = Pet.builder().id(petId).version(3L).status(Status.AVAILABLE).tags(List.of()).build();
+        doReturn(pet).when(petService).findPet(eq(petId), eq(fields));
+
+        mockMvc.perform(get("/pet/{id}", petId).param("fields", "tags, status"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"pet-1-v3-id.status.tags.version\""))
+            .andExpect(jsonPath("$.status").value("AVAILABLE"))
+            .andExpect(jsonPath("$.name").doesNotExist());
+    }
+
+    @Test
+    public void findMissingPet() throws Exception {
+        mockMvc.perform(get("/pet/{id}", 99L))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void findPetProfile() throws Exception {
+        PetProfile profile = PetProfile.builder()
+            .pet(createPet(1L, "Fluffy"))
+            .medicalRecords(List.of(MedicalRecordSummary.builder().id(4L).diagnosis("Checkup").build()))
+            .vaccinations(List.of())
+            .appointments(List.of())
+            .build();
+        doReturn(Optional.of(profile)).when(profileService).findProfile(1L);
+        doReturn(Optional.empty()).when(profileService).findProfile(99L);
+
+        mockMvc.perform(get("/pet/{id}/full", 1L))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pet.name").value("Fluffy"))
+            .andExpect(jsonPath("$.medicalRecords[0].diagnosis").value("Checkup"))
+            .andExpect(jsonPath("$.insurance").doesNotExist());
+        mockMvc.perform(get("/pet/{id}/full", 99L))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void petProfilePastItsDeadlineIsUnavailable() throws Exception {
+        doThrow(new QueryTimeoutException("Pet profile not loaded within PT2S")).when(profileService).findProfile(1L);
+
+        mockMvc.perform(get("/pet/{id}/full", 1L))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
     }
 
     @Test
@@ -87,6 +379,94 @@ public class PetControllerTest {
         verify(petService).savePet(any(Pet.class));
     }
 
+    @Test
+    public void retriedCreateIsReplayedWithoutSavingAgain() throws Exception {
+        Pet newPet = createPet(null, "NewPet");
+        doReturn(createPet(1L, "NewPet")).when(petService).savePet(any(Pet.class));
+        String body = objectMapper.writeValueAsString(newPet);
+
+        String first = mockMvc.perform(post("/pet")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, "create-newpet-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED))
+            .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/pet")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, "create-newpet-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotencyFilter.REPLAYED, "true"))
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().string(first));
+
+        verify(petService, times(1)).savePet(any(Pet.class));
+    }
+
+    @Test
+    public void idempotencyKeyReusedForDifferentRequestIsRejected() throws Exception {
+        doReturn(createPet(1L, "First")).when(petService).savePet(any(Pet.class));
+
+        mockMvc.perform(post("/pet")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, "reused-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createPet(null, "First"))))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/pet")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, "reused-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createPet(null, "Second"))))
+            .andExpect(status().isUnprocessableEntity());
+
+        verify(petService, times(1)).savePet(any(Pet.class));
+    }
+
+    @Test
+    public void sameIdempotencyKeyFromAnotherCallerIsNotReplayed() throws Exception {
+        doReturn(createPet(1L, "NewPet")).when(petService).savePet(any(Pet.class));
+        String body = objectMapper.writeValueAsString(createPet(null, "NewPet"));
+
+        mockMvc.perform(post("/pet")
+                .with(request -> { request.setRemoteAddr("10.0.0.1"); return request; })
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, "shared-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/pet")
+                .with(request -> { request.setRemoteAddr("10.0.0.2"); return request; })
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, "shared-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED));
+        mockMvc.perform(post("/pet")
+                .principal(() -> "alice")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, "shared-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED));
+
+        verify(petService, times(3)).savePet(any(Pet.class));
+    }
+
+    @Test
+    public void savePets() throws Exception {
+        List<Pet> newPets = List.of(createPet(null, "First"), createPet(null, "Second"));
+        doReturn(List.of(createPet(1L, "First"), createPet(2L, "Second"))).when(petService).savePets(any());
+
+        mockMvc.perform(post("/pets/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newPets)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$[0].id").value(1))
+            .andExpect(jsonPath("$[1].id").value(2));
+
+        verify(petService).savePets(any());
+    }
+
     @Test
     public void updatePet() throws Exception {
         Pet pet = createPet(1L, "UpdatedPet");
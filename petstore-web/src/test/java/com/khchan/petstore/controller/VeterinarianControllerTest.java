@@ -0,0 +1,87 @@
+package com.khchan.petstore.controller;
+
+import com.khchan.petstore.domain.AppointmentStatus;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.ScheduledAppointment;
+import com.khchan.petstore.idempotency.IdempotencyStore;
+import com.khchan.petstore.monitoring.RouteMetrics;
+import com.khchan.petstore.service.VeterinarianService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = VeterinarianController.class,
+    excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.khchan\\.petstore\\.repository\\..*"))
+public class VeterinarianControllerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 6, 2, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 6, 9, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private VeterinarianService veterinarianService;
+
+    @MockitoBean
+    private RouteMetrics routeMetrics;
+
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    @Test
+    public void schedule() throws Exception {
+        ScheduledAppointment appointment = ScheduledAppointment.builder()
+            .id(7L)
+            .dateTime(LocalDateTime.of(2025, 6, 3, 9, 30))
+            .reason("Checkup")
+            .status(AppointmentStatus.SCHEDULED)
+            .petId(1L)
+            .petName("Fluffy")
+            .petStatus(Status.AVAILABLE)
+            .build();
+        doReturn(Optional.of(List.of(appointment))).when(veterinarianService).findSchedule(1L, FROM, TO);
+
+        mockMvc.perform(get("/veterinarians/{id}/schedule", 1L)
+                .param("from", "2025-06-02T00:00:00")
+                .param("to", "2025-06-09T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(7))
+            .andExpect(jsonPath("$[0].petName").value("Fluffy"))
+            .andExpect(jsonPath("$[0].petStatus").value("AVAILABLE"));
+    }
+
+    @Test
+    public void unknownVeterinarianIsNotFound() throws Exception {
+        doReturn(Optional.empty()).when(veterinarianService).findSchedule(9L, FROM, TO);
+
+        mockMvc.perform(get("/veterinarians/{id}/schedule", 9L)
+                .param("from", "2025-06-02T00:00:00")
+                .param("to", "2025-06-09T00:00:00"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void invalidRangeIsBadRequest() throws Exception {
+        doThrow(new IllegalArgumentException("Schedule range must end after it starts"))
+            .when(veterinarianService).findSchedule(1L, TO, FROM);
+
+        mockMvc.perform(get("/veterinarians/{id}/schedule", 1L)
+                .param("from", "2025-06-09T00:00:00")
+                .param("to", "2025-06-02T00:00:00"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,126 @@
+package com.khchan.petstore.feed;
+
+import com.khchan.petstore.controller.PetChangeFeedController;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.service.PetChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PetChangeFeedTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    public void pushesCommittedChanges() throws Exception {
+        PetChangeFeed feed = feed(8, 16, 10, DIRECT);
+        MvcResult subscription = subscribe(mockMvc(feed), null);
+
+        feed.onPetChange(PetChangeEvent.statusChanged(pet(1L, Status.SOLD), Status.AVAILABLE));
+        feed.onPetChange(PetChangeEvent.removed(2L));
+
+        String body = subscription.getResponse().getContentAsString();
+        assertTrue(body.contains("event:pet-change"));
+        assertTrue(body.contains("\"type\":\"STATUS_CHANGED\""));
+        assertTrue(body.contains("\"previousStatus\":\"AVAILABLE\""));
+        assertTrue(body.contains("\"type\":\"REMOVED\""));
+        assertEquals(1, feed.stats().getSubscribers());
+    }
+
+    @Test
+    public void resumesAfterLastEventId() throws Exception {
+        PetChangeFeed feed = feed(8, 16, 10, DIRECT);
+        for (long id = 1; id <= 3; id++) {
+            feed.onPetChange(PetChangeEvent.updated(pet(id, Status.AVAILABLE)));
+        }
+        String third = feed.stats().getLastEventId();
+        String first = third.substring(0, third.lastIndexOf('-') + 1) + "1";
+
+        String body = subscribe(mockMvc(feed), first).getResponse().getContentAsString();
+
+        assertFalse(body.contains("id:" + first + "\n"));
+        assertTrue(body.contains("\"petId\":2"));
+        assertTrue(body.contains("id:" + third + "\n"));
+        assertFalse(body.contains("event:reset"));
+    }
+
+    @Test
+    public void resetsClientsTheHistoryCannotCatchUp() throws Exception {
+        PetChangeFeed feed = feed(8, 2, 10, DIRECT);
+        for (long id = 1; id <= 5; id++) {
+            feed.onPetChange(PetChangeEvent.updated(pet(id, Status.AVAILABLE)));
+        }
+        String last = feed.stats().getLastEventId();
+        String evicted = last.substring(0, last.lastIndexOf('-') + 1) + "1";
+
+        String body = subscribe(mockMvc(feed), evicted).getResponse().getContentAsString();
+        assertTrue(body.contains("event:reset"));
+        assertTrue(body.contains("id:" + last + "\n"));
+        assertFalse(body.contains("event:pet-change"));
+
+        assertTrue(subscribe(mockMvc(feed), "before-restart-9").getResponse().getContentAsString()
+            .contains("event:reset"));
+        assertEquals(2, feed.stats().getResets());
+    }
+
+    @Test
+    public void disconnectsSubscribersThatFallAFullBufferBehind() throws Exception {
+        List<Runnable> pending = new ArrayList<>();
+        PetChangeFeed feed = feed(2, 16, 10, pending::add);
+        MvcResult subscription = subscribe(mockMvc(feed), null);
+
+        for (long id = 1; id <= 3; id++) {
+            feed.onPetChange(PetChangeEvent.updated(pet(id, Status.AVAILABLE)));
+        }
+        assertEquals(1, feed.stats().getOverflows());
+
+        pending.forEach(Runnable::run);
+
+        String body = subscription.getResponse().getContentAsString();
+        assertTrue(body.contains("event:reset"));
+        assertFalse(body.contains("event:pet-change"));
+        assertEquals(0, feed.stats().getSubscribers());
+    }
+
+    @Test
+    public void rejectsSubscribersBeyondTheCap() throws Exception {
+        PetChangeFeed feed = feed(8, 16, 1, DIRECT);
+        MockMvc mockMvc = mockMvc(feed);
+        subscribe(mockMvc, null);
+
+        mockMvc.perform(get("/pets/changes"))
+            .andExpect(status().isServiceUnavailable());
+    }
+
+    private static PetChangeFeed feed(int bufferSize, int historySize, int maxSubscribers, Executor executor) {
+        return new PetChangeFeed(bufferSize, historySize, maxSubscribers, Duration.ofMinutes(1), executor);
+    }
+
+    private static MockMvc mockMvc(PetChangeFeed feed) {
+        return MockMvcBuilders.standaloneSetup(new PetChangeFeedController(feed)).build();
+    }
+
+    private static MvcResult subscribe(MockMvc mockMvc, String lastEventId) throws Exception {
+        return mockMvc.perform(lastEventId == null
+                ? get("/pets/changes")
+                : get("/pets/changes").header("Last-Event-ID", lastEventId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private static Pet pet(Long id, Status status) {
+        return Pet.builder().id(id).name("Pet " + id).status(status).build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.khchan.petstore.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyFilterTest {
+
+    private final IdempotencyFilter filter =
+        new IdempotencyFilter(new IdempotencyStore(DataSize.ofKilobytes(64), Duration.ofMinutes(5)));
+
+    @Test
+    public void bufferedBodyCanBeReadNonBlocking() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pet");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "async-read");
+        request.setContent("{\"name\":\"Async\"}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream input = req.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[4];
+                    while (input.isReady() && !input.isFinished()) {
+                        received.write(buffer, 0, input.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+        });
+
+        assertEquals("{\"name\":\"Async\"}", received.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead.get());
+    }
+}
@@ -0,0 +1,54 @@
+package com.khchan.petstore.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(DataSize.ofKilobytes(64), Duration.ofMinutes(5));
+
+    @Test
+    public void repeatWhileRunningIsInProgressThenReplayed() {
+        assertEquals(IdempotencyStore.Outcome.CLAIMED, store.claim("k", "a").outcome());
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, store.claim("k", "a").outcome());
+
+        StoredResponse response = new StoredResponse(201, "application/json", "{\"id\":1}".getBytes());
+        store.complete("k", "a", response);
+
+        IdempotencyStore.Claim replay = store.claim("k", "a");
+        assertEquals(IdempotencyStore.Outcome.REPLAY, replay.outcome());
+        assertSame(response, replay.response());
+        assertEquals(IdempotencyStore.Outcome.MISMATCH, store.claim("k", "b").outcome());
+
+        IdempotencyStats stats = store.stats();
+        assertEquals(1, stats.getExecuted());
+        assertEquals(1, stats.getReplayed());
+        assertEquals(1, stats.getInProgress());
+        assertEquals(1, stats.getMismatched());
+    }
+
+    @Test
+    public void releasedKeyCanRunAgain() {
+        store.claim("k", "a");
+        store.release("k", "a");
+
+        assertEquals(IdempotencyStore.Outcome.CLAIMED, store.claim("k", "a").outcome());
+    }
+
+    @Test
+    public void sizeBoundOnlyEvictsCompletedResponses() {
+        store.claim("pending", "a");
+        for (int i = 0; i < 100; i++) {
+            store.claim("done-" + i, "a");
+            store.complete("done-" + i, "a", new StoredResponse(201, null, new byte[4096]));
+        }
+        store.stats();
+
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, store.claim("pending", "a").outcome());
+        assertTrue(store.stats().getBytes() <= DataSize.ofKilobytes(64).toBytes());
+    }
+}
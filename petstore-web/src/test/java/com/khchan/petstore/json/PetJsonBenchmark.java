@@ -0,0 +1,88 @@
+package com.khchan.petstore.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.dto.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a 100-pet {@code /pets} page with Jackson's reflective serializers and with
+ * {@link PetJsonSerializers}. Not part of the test run; start {@link #main} from the test classpath,
+ * e.g. {@code mvn -pl petstore-web test-compile} and then run the class from an IDE. Add
+ * {@code -prof gc} through {@code OptionsBuilder.addProfiler} to compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetJsonBenchmark {
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private ObjectWriter reflective;
+    private ObjectWriter handWritten;
+    private PetPage page;
+
+    @Setup
+    public void setUp() {
+        reflective = new ObjectMapper().writer();
+        handWritten = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(Pet.class, new PetJsonSerializers.PetSerializer())
+                .addSerializer(Tag.class, new PetJsonSerializers.TagSerializer()))
+            .writer();
+
+        Category category = Category.builder().id(1L).name("Dogs").build();
+        List<Pet> pets = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            pets.add(Pet.builder()
+                .id(id)
+                .name("Pet " + id)
+                .status(Status.values()[(int) (id % 3)])
+                .category(category)
+                .photoUrls(List.of("https://img.example.com/pets/" + id + ".jpg"))
+                .tags(List.of(Tag.builder().id(1L).name("friendly").build(),
+                    Tag.builder().id(2L).name("vaccinated").build()))
+                .version(id % 5)
+                .build());
+        }
+        page = PetPage.builder().items(pets).nextCursor("MTAw").build();
+    }
+
+    @Benchmark
+    public void reflectiveJackson() throws IOException {
+        reflective.writeValue(sink, page);
+    }
+
+    @Benchmark
+    public void handWrittenSerializers() throws IOException {
+        handWritten.writeValue(sink, page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PetJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.khchan.petstore.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.khchan.petstore.domain.Category;
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.dto.PetPage;
+import com.khchan.petstore.dto.Tag;
+import com.khchan.petstore.service.PetCatalogReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PetJsonSerializersTest {
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper handWritten = new ObjectMapper().registerModule(new SimpleModule()
+        .addSerializer(Pet.class, new PetJsonSerializers.PetSerializer())
+        .addSerializer(Tag.class, new PetJsonSerializers.TagSerializer()));
+
+    @Test
+    public void fullPetMatchesJacksonOutput() throws Exception {
+        Pet pet = Pet.builder()
+            .id(7L)
+            .name("Rex \"the dog\" é")
+            .status(Status.PENDING)
+            .category(Category.builder().id(1L).name("Dogs").build())
+            .photoUrls(Arrays.asList("http://img/1.png", null))
+            .tags(List.of(Tag.builder().id(3L).name("friendly").build(), Tag.builder().name("new").build()))
+            .version(4L)
+            .build();
+
+        assertSameJson(pet);
+    }
+
+    @Test
+    public void sparsePetMatchesJacksonOutput() throws Exception {
+        assertSameJson(Pet.builder().id(7L).version(0L).build());
+        assertSameJson(Pet.builder().id(7L).category(new Category()).photoUrls(List.of()).tags(List.of()).build());
+    }
+
+    @Test
+    public void nestedPetsMatchJacksonOutput() throws Exception {
+        PetPage page = PetPage.builder()
+            .items(List.of(Pet.builder().id(1L).name("A").status(Status.SOLD).build(),
+                Pet.builder().id(2L).name("B").status(Status.AVAILABLE).build()))
+            .build();
+
+        assertSameJson(page);
+    }
+
+    @Test
+    public void catalogRowMatchesFullPet() throws Exception {
+        Pet pet = Pet.builder()
+            .id(7L)
+            .name("Rex")
+            .status(Status.PENDING)
+            .category(Category.builder().id(1L).name("Dogs").build())
+            .photoUrls(List.of("http://img/1.png"))
+            .tags(List.of(Tag.builder().id(3L).name("friendly").build()))
+            .version(4L)
+            .build();
+        PetCatalogReader.Row row = new PetCatalogReader.Row(7L, 4L, "Rex", Status.PENDING, 1L, "Dogs",
+            "[\"http://img/1.png\"]", "[{\"id\":3,\"name\":\"friendly\"}]");
+
+        assertEquals(reflective.writeValueAsString(pet), writeCatalogRow(row));
+    }
+
+    @Test
+    public void catalogRowWithoutAssociationsMatchesFullPet() throws Exception {
+        Pet pet = Pet.builder().id(7L).name("Rex").photoUrls(List.of()).tags(List.of()).version(0L).build();
+        PetCatalogReader.Row row = new PetCatalogReader.Row(7L, 0L, "Rex", null, null, null, null, null);
+
+        assertEquals(reflective.writeValueAsString(pet), writeCatalogRow(row));
+    }
+
+    private String writeCatalogRow(PetCatalogReader.Row row) throws Exception {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = reflective.createGenerator(json)) {
+            PetJsonSerializers.writeCatalogRow(row, generator);
+        }
+        return json.toString();
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(reflective.writeValueAsString(value), handWritten.writeValueAsString(value));
+    }
+}
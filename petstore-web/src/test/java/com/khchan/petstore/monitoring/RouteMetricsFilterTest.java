@@ -0,0 +1,83 @@
+package com.khchan.petstore.monitoring;
+
+import com.khchan.petstore.domain.Status;
+import com.khchan.petstore.dto.Pet;
+import com.khchan.petstore.service.PetService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RouteMetricsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RouteMetrics routeMetrics;
+
+    @Autowired
+    private PetService petService;
+
+    @BeforeEach
+    public void reset() {
+        routeMetrics.reset();
+    }
+
+    @Test
+    public void recordsRouteTimingAndSqlPerRequest() throws Exception {
+        mockMvc.perform(get("/pet/{id}", 1L).param("fields", "name"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/pet/{id}", 2L).param("fields", "name"))
+            .andExpect(status().isOk());
+
+        RouteStats stats = routeMetrics.snapshot().stream()
+            .filter(route -> route.getRoute().equals("GET /pet/{id}"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(2, stats.getCount());
+        assertEquals(1, stats.getSqlStatements().getMax());
+        assertTrue(stats.getWallTimeMicros().getMax() >= stats.getJdbcTimeMicros().getMax());
+
+        mockMvc.perform(get("/metrics/routes"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].route").value("GET /pet/{id}"))
+            .andExpect(jsonPath("$[0].sqlStatements.p99").value(1));
+    }
+
+    @Test
+    public void countsStatementsIssuedOnExecutorThreads() throws Exception {
+        Pet pet = petService.savePet(Pet.builder().name("Profiled").status(Status.AVAILABLE).build());
+        try {
+            mockMvc.perform(get("/pet/{id}/full", pet.getId()))
+                .andExpect(status().isOk());
+        } finally {
+            petService.removePet(pet.getId());
+        }
+
+        RouteStats stats = routeMetrics.snapshot().stream()
+            .filter(route -> route.getRoute().equals("GET /pet/{id}/full"))
+            .findFirst()
+            .orElseThrow();
+        // The pet, medical records, vaccinations, appointments and insurance, each read on a worker
+        assertTrue(stats.getSqlStatements().getMax() >= 5, "statements: " + stats.getSqlStatements().getMax());
+        assertTrue(stats.getJdbcTimeMicros().getMax() > 0);
+    }
+
+    @Test
+    public void metricsAreOnlyServedToLoopback() throws Exception {
+        mockMvc.perform(get("/metrics/routes").with(request -> {
+                request.setRemoteAddr("10.1.2.3");
+                return request;
+            }))
+            .andExpect(status().isForbidden());
+    }
+}
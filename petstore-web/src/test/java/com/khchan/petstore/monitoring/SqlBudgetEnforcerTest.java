@@ -0,0 +1,71 @@
+package com.khchan.petstore.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlBudgetEnforcerTest {
+
+    private final SqlBudgetProperties properties = new SqlBudgetProperties();
+    private final SqlBudgetEnforcer enforcer = new SqlBudgetEnforcer(properties);
+
+    @AfterEach
+    public void closeScope() {
+        SqlRequestScope.close();
+    }
+
+    @Test
+    public void logModeCountsViolationsWithoutFailing() {
+        properties.getRoutes().put("/pets", 2);
+        SqlRequestScope scope = SqlRequestScope.open();
+
+        SqlBudget budget = enforcer.enterRoute(scope, "GET", "/pets");
+        runStatements(scope, 3);
+        enforcer.exit(scope, budget);
+
+        assertEquals(Map.of("GET /pets", 1L), enforcer.getViolations());
+    }
+
+    @Test
+    public void statementsWithinBudgetAreNotViolations() {
+        properties.setDefaultRouteBudget(5);
+        SqlRequestScope scope = SqlRequestScope.open();
+        runStatements(scope, 4);
+
+        SqlBudget budget = enforcer.enterRoute(scope, "GET", "/pets");
+        runStatements(scope, 5);
+        enforcer.exit(scope, budget);
+
+        assertTrue(enforcer.getViolations().isEmpty());
+    }
+
+    @Test
+    public void routesWithoutBudgetAreNotTracked() {
+        assertNull(enforcer.enterRoute(SqlRequestScope.open(), "GET", "/pets"));
+    }
+
+    @Test
+    public void rejectModeStopsTheStatementThatExceedsTheBudget() {
+        properties.setMode(SqlBudgetMode.REJECT);
+        SqlRequestScope scope = SqlRequestScope.open();
+
+        SqlBudget budget = enforcer.enter(scope, "PetService.findPetsByIds", 2);
+        runStatements(scope, 2);
+        SqlBudgetExceededException e = assertThrows(SqlBudgetExceededException.class,
+            () -> scope.queryStarted("select 3"));
+        enforcer.exit(scope, budget);
+
+        assertEquals(2, scope.getStatements());
+        assertTrue(e.getMessage().contains("PetService.findPetsByIds"));
+        assertEquals(Map.of("PetService.findPetsByIds", 1L), enforcer.getViolations());
+    }
+
+    private static void runStatements(SqlRequestScope scope, int count) {
+        for (int i = 0; i < count; i++) {
+            scope.queryFinished(1, scope.queryStarted("select " + i));
+        }
+    }
+}
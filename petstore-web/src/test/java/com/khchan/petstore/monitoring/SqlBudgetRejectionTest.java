@@ -0,0 +1,41 @@
+package com.khchan.petstore.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+    "petstore.sql-budget.mode=REJECT",
+    "petstore.sql-budget.services[PetService.findPetsByIds]=1"
+})
+@AutoConfigureMockMvc
+public class SqlBudgetRejectionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlBudgetEnforcer enforcer;
+
+    @Test
+    public void serviceCallOverBudgetIsRejected() throws Exception {
+        long before = enforcer.getViolations().getOrDefault("PetService.findPetsByIds", 0L);
+
+        mockMvc.perform(get("/pets").param("ids", "1,2"))
+            .andExpect(status().isInternalServerError());
+
+        assertEquals(before + 1, enforcer.getViolations().get("PetService.findPetsByIds"));
+    }
+
+    @Test
+    public void serviceCallsWithoutBudgetAreUnaffected() throws Exception {
+        mockMvc.perform(get("/pet/{id}", 1L).param("fields", "name"))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,22 @@
+package com.khchan.petstore.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+public class VirtualThreadPinningMonitorTest {
+
+    @Autowired
+    private VirtualThreadPinningMonitor monitor;
+
+    @Test
+    public void startsWithVirtualThreadProfile() {
+        assertTrue(monitor.isRunning());
+        assertEquals(0, monitor.getPinnedCount());
+    }
+}